@@ -0,0 +1,23 @@
+#!/usr/bin/env sh
+# Launches the application from the artifacts built by `mvn -Paot-cds package`:
+# AOT-generated bean definitions plus the AppCDS archive from the training run.
+# The archive only matches the JDK and classpath it was recorded with, so rebuild
+# after upgrading either. Extra arguments are passed to the application.
+set -e
+
+DIR="$(cd "$(dirname "$0")/.." && pwd)/target/cds"
+JAR="$(ls "$DIR"/*-cds.jar 2>/dev/null | head -n 1)"
+
+if [ -z "$JAR" ] || [ ! -f "$DIR/application.jsa" ]; then
+    echo "No AOT/CDS build found in $DIR; run 'mvn -Paot-cds package' first." >&2
+    exit 1
+fi
+
+exec java \
+    -XX:SharedArchiveFile="$DIR/application.jsa" \
+    -Xshare:auto \
+    -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=prod \
+    ${JAVA_OPTS} \
+    -cp "$JAR:$DIR/lib/*" \
+    com.example.demo.DemoApplication "$@"
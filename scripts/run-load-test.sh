@@ -0,0 +1,26 @@
+#!/usr/bin/env sh
+# Seeds a synthetic catalog through the bulk endpoint, drives the mixed
+# read/write/search workload and compares the result with the stored baseline
+# (src/test/resources/loadtest/baseline.json). The report of the last run is in
+# target/load-test/report.json.
+#
+# Usage: scripts/run-load-test.sh [products] [requests-per-second] [duration-seconds] [-Dloadtest.*=...]
+#   scripts/run-load-test.sh 1000000 2000 120
+#   scripts/run-load-test.sh 100000 500 60 -Dloadtest.update-baseline=true
+#   scripts/run-load-test.sh 100000 500 60 -Dloadtest.base-url=http://localhost:8080/api/v1/products
+set -e
+
+cd "$(dirname "$0")/.."
+
+PRODUCTS="${1:-100000}"
+RATE="${2:-500}"
+DURATION="${3:-60}"
+[ $# -gt 0 ] && shift
+[ $# -gt 0 ] && shift
+[ $# -gt 0 ] && shift
+
+exec mvn -B -Pload-test test \
+    -Dloadtest.products="$PRODUCTS" \
+    -Dloadtest.rate="$RATE" \
+    -Dloadtest.duration-seconds="$DURATION" \
+    "$@"
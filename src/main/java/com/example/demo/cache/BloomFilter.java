@@ -0,0 +1,130 @@
+package com.example.demo.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Bloom filter over {@code long} and {@code String} keys.
+ * {@link #mightContain} never returns {@code false} for a key that was added;
+ * it returns {@code true} for an absent key with roughly the configured
+ * false-positive probability while the element count stays within the
+ * expected insertions. Elements cannot be removed.
+ * <p>
+ * Probe positions use double hashing (h1 + i * h2) over two 64-bit hashes.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final LongAdder insertions = new LongAdder();
+
+    private BloomFilter(long bitCount, int hashFunctions) {
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (bitCount + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Sizes the filter for {@code expectedInsertions} elements at false-positive
+     * probability {@code fpp}: m = -n ln p / (ln 2)^2 bits and k = m/n ln 2 hashes.
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive: " + expectedInsertions);
+        }
+        if (!(fpp > 0 && fpp < 1)) {
+            throw new IllegalArgumentException("fpp must be between 0 and 1: " + fpp);
+        }
+        long bits = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void put(long key) {
+        set(mix(key));
+    }
+
+    public void put(String key) {
+        set(hash(key));
+    }
+
+    public boolean mightContain(long key) {
+        return test(mix(key));
+    }
+
+    public boolean mightContain(String key) {
+        return test(hash(key));
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * Number of {@code put} calls, including repeats of the same key.
+     */
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    /**
+     * Current false-positive probability, from the fraction of bits set.
+     */
+    public double expectedFpp() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bitCount, hashFunctions);
+    }
+
+    private void set(long hash) {
+        long h2 = mix(hash) | 1;
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = Math.floorMod(hash + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+        insertions.increment();
+    }
+
+    private boolean test(long hash) {
+        long h2 = mix(hash) | 1;
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = Math.floorMod(hash + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String key) {
+        // FNV-1a over the UTF-8 bytes, then the same finalizer as long keys
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long key) {
+        // SplitMix64 finalizer: spreads sequential ids across all 64 bits
+        long z = key + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.shard.ProductShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the most recently updated products into the "products" cache before the
+ * application reports ready. Spring Boot publishes the readiness state only after
+ * all {@link ApplicationRunner}s have returned, so traffic routed on the readiness
+ * probe never meets a cold cache.
+ * <p>
+ * Ids are fetched with one query, then loaded in chunks of {@code cache.preload.chunk-size}
+ * ({@code IN} queries) on {@code cache.preload.parallelism} threads. With sharding,
+ * each shard contributes its most recent share of {@code cache.preload.size}.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.preload.enabled", havingValue = "true")
+public class ProductCacheWarmer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCacheWarmer.class);
+
+    private final ProductRepository productRepository;
+    private final ProductShards productShards;
+    private final CacheManager cacheManager;
+    private final int size;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public ProductCacheWarmer(ProductRepository productRepository,
+                              ProductShards productShards,
+                              CacheManager cacheManager,
+                              @Value("${cache.preload.size:1000}") int size,
+                              @Value("${cache.preload.parallelism:4}") int parallelism,
+                              @Value("${cache.preload.chunk-size:100}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.productShards = productShards;
+        this.cacheManager = cacheManager;
+        this.size = size;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        Cache cache = cacheManager.getCache("products");
+        int perShard = (size + productShards.count() - 1) / productShards.count();
+        List<List<Long>> idsByShard = productShards.scatter(shard ->
+            productRepository.findRecentlyUpdatedIds(PageRequest.of(0, perShard)));
+
+        AtomicInteger loaded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("cache-preload-"));
+        try {
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            for (int shard = 0; shard < idsByShard.size(); shard++) {
+                int target = shard;
+                List<Long> ids = idsByShard.get(shard);
+                for (int from = 0; from < ids.size(); from += chunkSize) {
+                    List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                    chunks.add(CompletableFuture.runAsync(() -> {
+                        // Same key and value shape as @Cacheable getProductById(id), which unwraps Optional
+                        for (Product product : productShards.on(target, () -> productRepository.findAllById(chunk))) {
+                            cache.put(product.getId(), product);
+                            loaded.incrementAndGet();
+                        }
+                    }, executor));
+                }
+            }
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            // A cold cache is slower, not wrong; don't keep the instance from starting.
+            log.warn("Cache preload failed after {} products", loaded.get(), e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        log.info("Preloaded {} products into the cache in {} ms",
+            loaded.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+import com.example.demo.repository.ProductKey;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.shard.ProductShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over existing product ids and normalized names, so lookups for
+ * products that definitely don't exist are answered without a query.
+ * <p>
+ * Built from the repository before the application reports ready, updated once
+ * each create or update commits, and rebuilt every
+ * {@code product.existence-filter.rebuild-interval} so deleted products stop
+ * matching. Products added while a rebuild is running are replayed into the new
+ * filters before they are swapped in; since adds follow the commit, a product
+ * is either visible to the rebuild's scan or added during the replay window.
+ * Until the first build completes, or when disabled, every key might exist.
+ */
+@Component
+public class ProductExistenceFilter implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductExistenceFilter.class);
+
+    private final ProductRepository productRepository;
+    private final ProductShards productShards;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double fpp;
+
+    private final Object lock = new Object();
+    private volatile Filters filters;
+    // Non-null while a rebuild is scanning; guarded by lock
+    private List<Product> addedDuringRebuild;
+
+    private final Counter idNegatives;
+    private final Counter nameNegatives;
+    private final Counter falsePositives;
+    private final AtomicLong lastRebuildMillis = new AtomicLong();
+
+    public ProductExistenceFilter(ProductRepository productRepository,
+                                  ProductShards productShards,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${product.existence-filter.enabled:true}") boolean enabled,
+                                  @Value("${product.existence-filter.expected-insertions:100000}") long expectedInsertions,
+                                  @Value("${product.existence-filter.fpp:0.01}") double fpp) {
+        this.productRepository = productRepository;
+        this.productShards = productShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+
+        this.idNegatives = Counter.builder("product.existence.filter.negatives")
+            .description("Lookups answered as definitely missing without a query")
+            .tag("key", "id")
+            .register(meterRegistry);
+        this.nameNegatives = Counter.builder("product.existence.filter.negatives")
+            .description("Lookups answered as definitely missing without a query")
+            .tag("key", "name")
+            .register(meterRegistry);
+        this.falsePositives = Counter.builder("product.existence.filter.false.positives")
+            .description("Lookups the filter passed that found nothing in the database")
+            .register(meterRegistry);
+        Gauge.builder("product.existence.filter.size", this, filter -> filter.memoryBytes())
+            .description("Memory held by the id and name filters")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("product.existence.filter.fpp", this, filter -> filter.currentFpp())
+            .description("Estimated false-positive probability of the id filter at its current fill")
+            .register(meterRegistry);
+        Gauge.builder("product.existence.filter.fpp.target", () -> fpp)
+            .description("Configured false-positive probability")
+            .register(meterRegistry);
+        Gauge.builder("product.existence.filter.rebuild.duration", lastRebuildMillis, AtomicLong::get)
+            .description("Time taken by the last rebuild")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean mightContainId(Long id) {
+        Filters current = filters;
+        if (current == null || id == null || current.ids().mightContain(id)) {
+            return true;
+        }
+        idNegatives.increment();
+        return false;
+    }
+
+    public boolean mightContainName(String name) {
+        Filters current = filters;
+        if (current == null || name == null || current.names().mightContain(normalize(name))) {
+            return true;
+        }
+        nameNegatives.increment();
+        return false;
+    }
+
+    /**
+     * Records a lookup that passed the filter but found nothing.
+     */
+    public void recordFalsePositive() {
+        if (filters != null) {
+            falsePositives.increment();
+        }
+    }
+
+    // Ahead of listeners that announce the change, so nobody learns of an id the filter would reject
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.product() != null) {
+            add(event.product());
+        }
+    }
+
+    void add(Product product) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            Filters current = filters;
+            if (current != null) {
+                current.add(product);
+            }
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(product);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.existence-filter.rebuild-interval:PT10M}",
+        initialDelayString = "${product.existence-filter.rebuild-interval:PT10M}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        // Opened before anything is read, so every add is either scanned or replayed
+        synchronized (lock) {
+            addedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            long count = productShards.scatter(shard -> productRepository.count()).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+            // Leave headroom so products created before the next rebuild keep the target rate
+            Filters rebuilt = Filters.create(Math.max(expectedInsertions, count * 2), fpp);
+            productShards.forEach(shard -> transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ProductKey> keys = productRepository.streamKeys()) {
+                    keys.forEach(key -> rebuilt.add(key.getId(), key.getName()));
+                }
+            }));
+            synchronized (lock) {
+                addedDuringRebuild.forEach(rebuilt::add);
+                filters = rebuilt;
+            }
+            lastRebuildMillis.set((System.nanoTime() - start) / 1_000_000);
+            log.info("Rebuilt product existence filter over {} products ({} KB) in {} ms",
+                count, memoryBytes() / 1024, lastRebuildMillis.get());
+        } catch (RuntimeException e) {
+            // Keep answering from the previous filters (or let everything through)
+            log.warn("Rebuilding the product existence filter failed", e);
+        } finally {
+            synchronized (lock) {
+                addedDuringRebuild = null;
+            }
+        }
+    }
+
+    long memoryBytes() {
+        Filters current = filters;
+        return current == null ? 0 : (current.ids().bitSize() + current.names().bitSize()) / 8;
+    }
+
+    double currentFpp() {
+        Filters current = filters;
+        return current == null ? 1.0 : current.ids().expectedFpp();
+    }
+
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Filters(BloomFilter ids, BloomFilter names) {
+        static Filters create(long expectedInsertions, double fpp) {
+            return new Filters(BloomFilter.create(expectedInsertions, fpp), BloomFilter.create(expectedInsertions, fpp));
+        }
+
+        void add(Product product) {
+            add(product.getId(), product.getName());
+        }
+
+        void add(Long id, String name) {
+            if (id != null) {
+                ids.put(id);
+            }
+            if (name != null) {
+                names.put(normalize(name));
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response-level cache of encoded product JSON, so a hot product is serialized
+ * once per version instead of once per request. Entries are keyed by id and
+ * checked against {@code updatedAt}, so a newer {@link Product} never gets stale
+ * bytes even if an eviction is missed; the write paths in the service evict
+ * explicitly to release memory.
+ * <p>
+ * The gzipped form is built on first request and kept alongside the plain bytes.
+ * Once {@code cache.json.max-size} is reached new entries are encoded but not
+ * stored until evictions free space.
+ */
+@Component
+public class ProductJsonCache implements MeterBinder {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long maxBytes;
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytesHeld = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ProductJsonCache(ObjectMapper objectMapper,
+                            @Value("${cache.json.enabled:true}") boolean enabled,
+                            @Value("${cache.json.max-size:64MB}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    /**
+     * UTF-8 JSON for the product, as Jackson would write it for the response body.
+     */
+    public byte[] json(Product product) {
+        return lookup(product).json();
+    }
+
+    /**
+     * Gzip-compressed form of {@link #json(Product)}.
+     */
+    public byte[] gzip(Product product) {
+        Entry entry = lookup(product);
+        if (entry.gzip() != null) {
+            return entry.gzip();
+        }
+        Entry compressed = new Entry(entry.version(), entry.json(), compress(entry.json()));
+        if (enabled && bytesHeld.get() + compressed.gzip().length <= maxBytes
+                && entries.replace(product.getId(), entry, compressed)) {
+            bytesHeld.addAndGet(compressed.gzip().length);
+        }
+        return compressed.gzip();
+    }
+
+    public void evict(Long id) {
+        Entry removed = entries.remove(id);
+        if (removed != null) {
+            bytesHeld.addAndGet(-removed.size());
+        }
+    }
+
+    public void clear() {
+        entries.keySet().forEach(this::evict);
+    }
+
+    public long getBytesHeld() {
+        return bytesHeld.get();
+    }
+
+    public double getHitRatio() {
+        long total = hits.sum() + misses.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("product.json.cache.size", bytesHeld, AtomicLong::get)
+            .description("Encoded product JSON held in memory")
+            .baseUnit("bytes")
+            .register(registry);
+        Gauge.builder("product.json.cache.entries", entries, ConcurrentMap::size)
+            .description("Products with cached encoded JSON")
+            .register(registry);
+        Gauge.builder("product.json.cache.hit.ratio", this, ProductJsonCache::getHitRatio)
+            .description("Share of product responses served from pre-encoded bytes")
+            .register(registry);
+        FunctionCounter.builder("product.json.cache.requests", hits, LongAdder::sum)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("product.json.cache.requests", misses, LongAdder::sum)
+            .tag("result", "miss")
+            .register(registry);
+    }
+
+    private Entry lookup(Product product) {
+        Entry entry = entries.get(product.getId());
+        if (entry != null && Objects.equals(entry.version(), product.getUpdatedAt())) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+
+        Entry encoded = new Entry(product.getUpdatedAt(), encode(product), null);
+        if (!enabled || product.getId() == null) {
+            return encoded;
+        }
+        if (entry != null && entries.remove(product.getId(), entry)) {
+            bytesHeld.addAndGet(-entry.size());
+        }
+        if (bytesHeld.get() + encoded.size() <= maxBytes
+                && entries.putIfAbsent(product.getId(), encoded) == null) {
+            bytesHeld.addAndGet(encoded.size());
+        }
+        return encoded;
+    }
+
+    private byte[] encode(Product product) {
+        try {
+            return objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode product " + product.getId(), e);
+        }
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record Entry(LocalDateTime version, byte[] json, byte[] gzip) {
+        long size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
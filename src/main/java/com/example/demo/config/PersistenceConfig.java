@@ -0,0 +1,21 @@
+package com.example.demo.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+@Configuration
+public class PersistenceConfig {
+
+    /**
+     * R2DBC contributes a ReactiveTransactionManager as well, so the JPA one is
+     * pinned as the default for {@code @Transactional}.
+     */
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
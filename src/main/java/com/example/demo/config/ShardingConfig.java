@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import com.example.demo.shard.ProductShards;
+import com.example.demo.shard.ShardRoutingDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One datasource per shard behind a {@link ShardRoutingDataSource}. Every shard
+ * holds the full schema (products and their outbox rows live together, so a
+ * write and its event commit atomically) and is migrated here with its own
+ * {@code shard_index}/{@code shard_count} Flyway placeholders, which the id
+ * sequence migration uses to interleave ids across shards.
+ */
+@Configuration
+@Profile("sharded")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ProductShards shards,
+                                 @Value("${sharding.url-pattern}") String urlPattern,
+                                 @Value("${spring.datasource.username:sa}") String username,
+                                 @Value("${spring.datasource.password:}") String password,
+                                 @Value("${spring.flyway.locations:classpath:db/migration}") String[] locations) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            DataSource dataSource = DataSourceBuilder.create()
+                .url(String.format(urlPattern, shard))
+                .username(username)
+                .password(password)
+                .build();
+            Flyway.configure()
+                .dataSource(dataSource)
+                .locations(locations)
+                .placeholders(Map.of(
+                    "shard_index", String.valueOf(shard),
+                    "shard_count", String.valueOf(shards.count())))
+                .load()
+                .migrate();
+            targets.put(shard, dataSource);
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        // Unrouted work (Hibernate bootstrap, anything not shard-aware) goes to the first shard
+        routing.setDefaultTargetDataSource(targets.get(0));
+        // Don't fall back to the default for an unknown shard index
+        routing.setLenientFallback(false);
+        return routing;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@Profile("prod")
+public class StartupConfig {
+
+    /**
+     * Marks beans whose type lives under one of {@code startup.lazy-init.packages}
+     * as lazy. Unlike global lazy initialization this keeps the data layer, web
+     * stack and schedulers eager, so configuration errors still fail at boot and
+     * the first request doesn't pay for them.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonEssentialBeans(Environment environment) {
+        List<String> packages = Binder.get(environment)
+                .bind("startup.lazy-init.packages", Bindable.listOf(String.class))
+                .orElse(List.of());
+        return beanFactory -> {
+            if (packages.isEmpty()) {
+                return;
+            }
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (definition.isLazyInit() || definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+                    continue;
+                }
+                Class<?> type = beanFactory.getType(name, false);
+                if (type != null && isNonEssential(type.getName(), packages)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isNonEssential(String typeName, List<String> packages) {
+        return packages.stream().anyMatch(prefix -> typeName.startsWith(prefix + "."));
+    }
+}
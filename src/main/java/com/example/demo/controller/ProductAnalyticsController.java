@@ -0,0 +1,67 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.InventoryValuation;
+import com.example.demo.model.PriceBucket;
+import com.example.demo.model.StockBucket;
+import com.example.demo.service.ProductAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/products/analytics")
+@Tag(name = "Product Analytics", description = "Inventory aggregates computed over the whole catalog")
+public class ProductAnalyticsController {
+
+    private final ProductAnalyticsService analyticsService;
+
+    public ProductAnalyticsController(ProductAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/valuation")
+    @Operation(summary = "Inventory valuation",
+        description = "Product count, units in stock, total value (price * stock) and out-of-stock count")
+    @ApiResponse(responseCode = "200", description = "Valuation computed successfully")
+    public ResponseEntity<InventoryValuation> getValuation() {
+        return ResponseEntity.ok(analyticsService.getValuation());
+    }
+
+    @GetMapping("/price-histogram")
+    @Operation(summary = "Price histogram",
+        description = "Products and units per price bucket of the given width; empty buckets are left out")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Histogram computed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid bucket width")
+    })
+    public ResponseEntity<List<PriceBucket>> getPriceHistogram(
+            @Parameter(description = "Bucket width") @RequestParam(defaultValue = "10") BigDecimal bucketWidth) {
+        return ResponseEntity.ok(analyticsService.getPriceHistogram(bucketWidth));
+    }
+
+    @GetMapping("/stock-levels")
+    @Operation(summary = "Stock level buckets",
+        description = "Products and inventory value per stock bucket; each bound is the inclusive upper limit "
+            + "of a bucket, with an open-ended bucket above the last")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Buckets computed successfully"),
+        @ApiResponse(responseCode = "400", description = "Bounds not strictly ascending")
+    })
+    public ResponseEntity<List<StockBucket>> getStockLevels(
+            @Parameter(description = "Comma-separated ascending upper bounds")
+            @RequestParam(defaultValue = "0,10,100,1000") int[] bounds) {
+        return ResponseEntity.ok(analyticsService.getStockLevels(bounds));
+    }
+}
@@ -1,29 +1,42 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.ProductJsonCache;
+import com.example.demo.model.BulkProductRequest;
 import com.example.demo.model.Product;
+import com.example.demo.model.ProductField;
 import com.example.demo.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/products")
 @Tag(name = "Product Management", description = "APIs for managing products")
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductJsonCache productJsonCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductJsonCache productJsonCache) {
         this.productService = productService;
+        this.productJsonCache = productJsonCache;
     }
 
     @PostMapping
@@ -37,15 +50,47 @@ public class ProductController {
         return new ResponseEntity<>(productService.createProduct(product), HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Create products in bulk",
+        description = "Creates up to 1000 products in one transaction (one per shard when sharded); "
+            + "a duplicate name rejects the whole batch")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Products created successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid input or too many products"),
+        @ApiResponse(responseCode = "409", description = "Product with same name already exists")
+    })
+    public ResponseEntity<List<Product>> createProducts(@Valid @RequestBody BulkProductRequest request) {
+        return new ResponseEntity<>(productService.createProducts(request.products()), HttpStatus.CREATED);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieves a product by its ID")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Product found"),
+        @ApiResponse(responseCode = "200", description = "Product found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = Product.class))),
         @ApiResponse(responseCode = "404", description = "Product not found")
     })
-    public ResponseEntity<Product> getProductById(
-            @Parameter(description = "Product ID") @PathVariable Long id) {
+    public ResponseEntity<byte[]> getProductById(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Pre-encoded bytes from the JSON cache are written as-is, without another Jackson pass
         return productService.getProductById(id)
+            .map(product -> encodedResponse(product, acceptsGzip(acceptEncoding)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(path = "/{id}", params = "fields")
+    @Operation(summary = "Get selected fields of a product",
+        description = "Retrieves only the listed fields (plus id) of a product, e.g. fields=name,price")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Product found"),
+        @ApiResponse(responseCode = "400", description = "Unknown field"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public ResponseEntity<Map<String, Object>> getProductFieldsById(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return") @RequestParam String fields) {
+        return productService.getProductFieldsById(id, ProductField.parse(fields))
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
@@ -57,6 +102,47 @@ public class ProductController {
         return ResponseEntity.ok(productService.getAllProducts());
     }
 
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(summary = "Get selected fields of all products",
+        description = "Retrieves only the listed fields (plus id) of every product, e.g. fields=name,price,stockQuantity")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "List of products retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    public ResponseEntity<List<Map<String, Object>>> getAllProductFields(
+            @Parameter(description = "Comma-separated fields to return") @RequestParam String fields) {
+        return ResponseEntity.ok(productService.getProductFields(ProductField.parse(fields), null, null));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get products by IDs",
+        description = "Retrieves several products in one call, in request order; unknown IDs are left out")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs")
+    })
+    public ResponseEntity<List<?>> getProductsByIds(
+            @Parameter(description = "Comma-separated product IDs") @RequestParam List<Long> ids,
+            @Parameter(description = "Comma-separated fields to return") @RequestParam(required = false) String fields) {
+        List<Product> products = productService.getProductsByIds(ids);
+        if (fields == null) {
+            return ResponseEntity.ok(products);
+        }
+        Set<ProductField> selected = ProductField.parse(fields);
+        return ResponseEntity.ok(products.stream().map(product -> ProductField.project(product, selected)).toList());
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "Look up products by IDs",
+        description = "Same as GET with ids, for ID lists too long for a query string")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs")
+    })
+    public ResponseEntity<List<Product>> lookupProducts(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search products", description = "Search products by various criteria")
     @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
@@ -75,6 +161,22 @@ public class ProductController {
         return ResponseEntity.ok(productService.getAllProducts());
     }
 
+    @GetMapping(path = "/search", params = "fields")
+    @Operation(summary = "Search selected fields of products",
+        description = "Search products by various criteria, returning only the listed fields (plus id)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search results retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    public ResponseEntity<List<Map<String, Object>>> searchProductFields(
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Low stock threshold") @RequestParam(required = false) Integer lowStockThreshold,
+            @Parameter(description = "Comma-separated fields to return") @RequestParam String fields) {
+        // Same precedence as searchProducts: price first, then stock
+        Integer threshold = maxPrice == null ? lowStockThreshold : null;
+        return ResponseEntity.ok(productService.getProductFields(ProductField.parse(fields), maxPrice, threshold));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update product", description = "Updates an existing product")
     @ApiResponses(value = {
@@ -99,4 +201,51 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
-} 
\ No newline at end of file
+
+    private ResponseEntity<byte[]> encodedResponse(Product product, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(productJsonCache.gzip(product));
+        }
+        return response.body(productJsonCache.json(product));
+    }
+
+    /**
+     * Whether gzip has a positive weight, either listed itself or through {@code *}.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                gzip = qValue(parts);
+            } else if (name.equals("*")) {
+                any = qValue(parts);
+            }
+        }
+        Double q = gzip != null ? gzip : any;
+        return q != null && q > 0;
+    }
+
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].replace(" ", "");
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    // Unreadable weight: don't send a coding the client may not support
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
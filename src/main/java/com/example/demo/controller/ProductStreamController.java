@@ -0,0 +1,43 @@
+package com.example.demo.controller;
+
+import com.example.demo.stream.ProductChangeBroadcaster;
+import com.example.demo.stream.ProductStreamFilter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/products")
+@Tag(name = "Product Management", description = "APIs for managing products")
+public class ProductStreamController {
+
+    private final ProductChangeBroadcaster broadcaster;
+
+    public ProductStreamController(ProductChangeBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream product changes",
+        description = "Server-Sent Events stream of committed product creations, updates and deletions")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    public SseEmitter streamProducts(
+            @Parameter(description = "Only these product IDs") @RequestParam(required = false) Set<Long> ids,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Low stock threshold") @RequestParam(required = false) Integer lowStockThreshold) {
+        return broadcaster.subscribe(new ProductStreamFilter(ids, minPrice, maxPrice, lowStockThreshold));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Product;
+import com.example.demo.service.ReactiveProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * WebFlux variant of {@link ProductController}, serving the same contract when the
+ * "reactive" profile is active. List endpoints stream rows as they are read and
+ * honour backpressure; ask for {@code application/x-ndjson} to receive one product
+ * per line instead of a JSON array.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/products")
+@Tag(name = "Product Management", description = "APIs for managing products")
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+
+    public ReactiveProductController(ReactiveProductService productService) {
+        this.productService = productService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a new product", description = "Creates a new product with the provided details")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Product created successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "409", description = "Product with same name already exists")
+    })
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Product> createProduct(@Valid @RequestBody Product product) {
+        return productService.createProduct(product);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get product by ID", description = "Retrieves a product by its ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Product found"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public Mono<ResponseEntity<Product>> getProductById(
+            @Parameter(description = "Product ID") @PathVariable Long id) {
+        return productService.getProductById(id)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get all products", description = "Retrieves all products in the system")
+    @ApiResponse(responseCode = "200", description = "List of products retrieved successfully")
+    public Flux<Product> getAllProducts() {
+        return productService.getAllProducts();
+    }
+
+    @GetMapping(params = "ids", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get products by IDs",
+        description = "Retrieves several products in one call, in request order; unknown IDs are left out")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs")
+    })
+    public Flux<Product> getProductsByIds(
+            @Parameter(description = "Comma-separated product IDs") @RequestParam List<Long> ids) {
+        return productService.getProductsByIds(ids);
+    }
+
+    @PostMapping(path = "/lookup", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Look up products by IDs",
+        description = "Same as GET with ids, for ID lists too long for a query string")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Too many IDs")
+    })
+    public Flux<Product> lookupProducts(@RequestBody List<Long> ids) {
+        return productService.getProductsByIds(ids);
+    }
+
+    @GetMapping(path = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Search products", description = "Search products by various criteria")
+    @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+    public Flux<Product> searchProducts(
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Low stock threshold") @RequestParam(required = false) Integer lowStockThreshold) {
+
+        if (maxPrice != null) {
+            return productService.getProductsByPriceLessThanEqual(maxPrice);
+        }
+
+        if (lowStockThreshold != null) {
+            return productService.getLowStockProducts(lowStockThreshold);
+        }
+
+        return productService.getAllProducts();
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update product", description = "Updates an existing product")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Product updated successfully"),
+        @ApiResponse(responseCode = "404", description = "Product not found"),
+        @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public Mono<Product> updateProduct(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Valid @RequestBody Product product) {
+        return productService.updateProduct(id, product);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete product", description = "Deletes a product by its ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Product deleted successfully"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteProduct(
+            @Parameter(description = "Product ID") @PathVariable Long id) {
+        return productService.deleteProduct(id);
+    }
+}
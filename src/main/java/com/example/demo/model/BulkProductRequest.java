@@ -0,0 +1,15 @@
+package com.example.demo.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Body of a bulk create. Every product is validated like a single create;
+ * errors are reported per element, e.g. {@code products[3].price}.
+ */
+public record BulkProductRequest(
+    @NotEmpty(message = "At least one product is required")
+    List<@Valid Product> products
+) {}
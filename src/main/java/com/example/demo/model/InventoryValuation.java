@@ -0,0 +1,14 @@
+package com.example.demo.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Catalog-wide inventory totals. {@code inventoryValue} is the exact sum of
+ * {@code price * stockQuantity}; products with no stock count as out of stock.
+ */
+public record InventoryValuation(
+    long productCount,
+    long totalUnits,
+    BigDecimal inventoryValue,
+    long outOfStockCount
+) {}
@@ -0,0 +1,13 @@
+package com.example.demo.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Products priced from {@code minPrice} (inclusive) up to {@code maxPrice} (exclusive).
+ */
+public record PriceBucket(
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    long products,
+    long units
+) {}
@@ -12,13 +12,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", uniqueConstraints = {
+    @UniqueConstraint(name = Product.NAME_CONSTRAINT, columnNames = "name")
+})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
+    public static final String NAME_CONSTRAINT = "uk_products_name";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    // One database call per 50 ids (V5__pool_unsharded_ids); sharded sequences stride by the
+    // shard count, so the sharded profile draws one value per insert instead
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is required")
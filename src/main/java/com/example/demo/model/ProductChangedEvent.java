@@ -0,0 +1,18 @@
+package com.example.demo.model;
+
+/**
+ * In-process notification of a product write, published alongside the outbox row.
+ * {@code product} is {@code null} for deletions; {@code previous} is the state an
+ * update replaced, and {@code null} for creations and deletions.
+ */
+public record ProductChangedEvent(
+    Long eventId,
+    ProductEventType type,
+    Long productId,
+    Product product,
+    Product previous
+) {
+    public ProductChangedEvent(Long eventId, ProductEventType type, Long productId, Product product) {
+        this(eventId, type, productId, product, null);
+    }
+}
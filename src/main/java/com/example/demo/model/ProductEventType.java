@@ -0,0 +1,7 @@
+package com.example.demo.model;
+
+public enum ProductEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,73 @@
+package com.example.demo.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Product attributes that can be requested through a {@code fields=} parameter.
+ * The property name is both the JSON key and the entity attribute queried.
+ */
+public enum ProductField {
+    ID("id", Product::getId),
+    NAME("name", Product::getName),
+    DESCRIPTION("description", Product::getDescription),
+    PRICE("price", Product::getPrice),
+    STOCK_QUANTITY("stockQuantity", Product::getStockQuantity),
+    CREATED_AT("createdAt", Product::getCreatedAt),
+    UPDATED_AT("updatedAt", Product::getUpdatedAt);
+
+    private static final Map<String, ProductField> BY_PROPERTY = Arrays.stream(values())
+        .collect(Collectors.toUnmodifiableMap(ProductField::getProperty, Function.identity()));
+
+    private final String property;
+    private final Function<Product, Object> accessor;
+
+    ProductField(String property, Function<Product, Object> accessor) {
+        this.property = property;
+        this.accessor = accessor;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Parses a comma-separated list of property names. {@code id} is always
+     * included so results can be told apart.
+     *
+     * @throws IllegalArgumentException for an unknown property name
+     */
+    public static Set<ProductField> parse(String fields) {
+        EnumSet<ProductField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            ProductField field = BY_PROPERTY.get(property);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown product field '" + property
+                    + "'; expected any of " + String.join(", ", BY_PROPERTY.keySet().stream().sorted().toList()));
+            }
+            selected.add(field);
+        }
+        return Collections.unmodifiableSet(selected);
+    }
+
+    /**
+     * The selected attributes of an already loaded product, keyed by property name.
+     */
+    public static Map<String, Object> project(Product product, Set<ProductField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (ProductField field : fields) {
+            values.put(field.property, field.accessor.apply(product));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Products with a stock quantity from {@code minStock} to {@code maxStock}, both
+ * inclusive; a {@code null} bound is open.
+ */
+public record StockBucket(
+    Integer minStock,
+    Integer maxStock,
+    long products,
+    BigDecimal inventoryValue
+) {}
@@ -0,0 +1,78 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.ProductOutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Appends events as JSON lines to a local file and forces them to disk before
+ * the batch is acknowledged.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.type", havingValue = "file")
+public class FileProductEventSink implements ProductEventSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileProductEventSink(@Value("${outbox.sink.file.path:data/product-events.jsonl}") Path path,
+                                ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<ProductOutboxEvent> batch) {
+        StringBuilder lines = new StringBuilder();
+        for (ProductOutboxEvent event : batch) {
+            lines.append(toJson(event)).append('\n');
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(path, CREATE, WRITE, APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append events to " + path, e);
+        }
+    }
+
+    private String toJson(ProductOutboxEvent event) {
+        try {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("eventId", event.getId());
+            node.put("productId", event.getProductId());
+            node.put("type", event.getEventType().name());
+            node.put("occurredAt", event.getCreatedAt().toString());
+            if (event.getPayload() != null) {
+                node.set("product", objectMapper.readTree(event.getPayload()));
+            }
+            return objectMapper.writeValueAsString(node);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode event " + event.getId(), e);
+        }
+    }
+}
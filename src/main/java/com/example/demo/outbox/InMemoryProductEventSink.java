@@ -0,0 +1,40 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.ProductOutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent events in memory. Intended for local development and tests.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryProductEventSink implements ProductEventSink {
+
+    private final int capacity;
+    private final Deque<ProductOutboxEvent> events = new ArrayDeque<>();
+
+    public InMemoryProductEventSink(@Value("${outbox.sink.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<ProductOutboxEvent> batch) {
+        for (ProductOutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<ProductOutboxEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
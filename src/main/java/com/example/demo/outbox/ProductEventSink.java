@@ -0,0 +1,17 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.ProductOutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for product change events drained from the outbox.
+ * <p>
+ * Batches arrive in outbox id order. A batch is marked published only after
+ * {@link #publish(List)} returns normally, so a failing sink sees the same
+ * events again on the next relay run (at-least-once delivery). Consumers
+ * should de-duplicate on the event id.
+ */
+public interface ProductEventSink {
+    void publish(List<ProductOutboxEvent> events);
+}
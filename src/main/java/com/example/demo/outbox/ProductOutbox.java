@@ -0,0 +1,69 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+import com.example.demo.model.ProductEventType;
+import com.example.demo.model.ProductOutboxEvent;
+import com.example.demo.repository.ProductOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Appends product change events to the outbox table. Must be called inside the
+ * transaction that writes the product so the event commits or rolls back with it.
+ * Each appended row is also published as a {@link ProductChangedEvent} for
+ * in-process listeners bound to the transaction outcome.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class ProductOutbox {
+
+    private final ProductOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductOutbox(ProductOutboxRepository outboxRepository,
+                         ObjectMapper objectMapper,
+                         ApplicationEventPublisher eventPublisher) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void productCreated(Product product) {
+        append(ProductEventType.CREATED, product.getId(), product, null);
+    }
+
+    /**
+     * {@code previous} only travels with the in-process event; the outbox payload is the new state.
+     */
+    public void productUpdated(Product previous, Product product) {
+        append(ProductEventType.UPDATED, product.getId(), product, previous);
+    }
+
+    public void productDeleted(Long id) {
+        append(ProductEventType.DELETED, id, null, null);
+    }
+
+    private void append(ProductEventType eventType, Long productId, Product product,
+                        Product previous) {
+        ProductOutboxEvent event = outboxRepository.save(ProductOutboxEvent.builder()
+            .productId(productId)
+            .eventType(eventType)
+            .payload(product != null ? toJson(product) : null)
+            .build());
+        eventPublisher.publishEvent(new ProductChangedEvent(event.getId(), eventType, productId, product, previous));
+    }
+
+    private String toJson(Product product) {
+        try {
+            return objectMapper.writeValueAsString(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product " + product.getId(), e);
+        }
+    }
+}
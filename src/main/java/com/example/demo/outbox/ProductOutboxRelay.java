@@ -0,0 +1,187 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.ProductOutboxEvent;
+import com.example.demo.repository.ProductOutboxRepository;
+import com.example.demo.shard.ProductShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains unpublished outbox rows in id order and hands them to the configured
+ * {@link ProductEventSink}. Each batch is marked published in its own
+ * transaction after the sink accepts it; a failure leaves the batch pending
+ * for the next run. With sharding, each shard's outbox is drained in turn; events
+ * for one product always share a shard, so their order is kept.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductOutboxRelay.class);
+
+    private final ProductOutboxRepository outboxRepository;
+    private final ProductShards productShards;
+    private final ProductEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+
+    private final Counter publishedEvents;
+    private final Counter failedBatches;
+    private final Timer batchDuration;
+    private final Timer deliveryLag;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    @Autowired
+    public ProductOutboxRelay(ProductOutboxRepository outboxRepository,
+                              ProductShards productShards,
+                              ProductEventSink sink,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${outbox.relay.batch-size:500}") int batchSize,
+                              @Value("${outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+                              @Value("${outbox.retention:P7D}") Duration retention) {
+        this(outboxRepository, productShards, sink, transactionManager, meterRegistry, Clock.systemDefaultZone(),
+            batchSize, maxBatchesPerRun, retention);
+    }
+
+    ProductOutboxRelay(ProductOutboxRepository outboxRepository,
+                       ProductShards productShards,
+                       ProductEventSink sink,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       Clock clock,
+                       int batchSize,
+                       int maxBatchesPerRun,
+                       Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.productShards = productShards;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+
+        this.publishedEvents = Counter.builder("outbox.events.published")
+            .description("Product change events delivered to the sink")
+            .register(meterRegistry);
+        this.failedBatches = Counter.builder("outbox.batches.failed")
+            .description("Outbox batches rejected by the sink")
+            .register(meterRegistry);
+        this.batchDuration = Timer.builder("outbox.batch.duration")
+            .description("Time to deliver and acknowledge one outbox batch")
+            .register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.delivery.lag")
+            .description("Time between the product write and delivery of its event")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("outbox.events.pending", pendingEvents, AtomicLong::get)
+            .description("Outbox events not yet delivered")
+            .register(meterRegistry);
+        Gauge.builder("outbox.oldest.pending.age", oldestPendingAgeMillis, AtomicLong::get)
+            .description("Age of the oldest undelivered event")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:500}")
+    public void relay() {
+        productShards.forEach(shard -> relayShard());
+        refreshBacklog();
+    }
+
+    private void relayShard() {
+        int batches = 0;
+        while (batches < maxBatchesPerRun) {
+            int delivered = relayBatch();
+            if (delivered < 0) {
+                break;
+            }
+            batches++;
+            if (delivered < batchSize) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Delivers one batch.
+     *
+     * @return the number of events delivered, or -1 if the sink rejected the batch
+     */
+    int relayBatch() {
+        List<ProductOutboxEvent> batch = outboxRepository
+            .findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        try {
+            sink.publish(batch);
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.warn("Outbox sink rejected batch starting at event {}, will retry", batch.get(0).getId(), e);
+            return -1;
+        }
+
+        LocalDateTime publishedAt = LocalDateTime.now(clock);
+        List<Long> ids = batch.stream().map(ProductOutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.markPublished(ids, publishedAt));
+
+        for (ProductOutboxEvent event : batch) {
+            deliveryLag.record(Duration.between(event.getCreatedAt(), publishedAt));
+        }
+        publishedEvents.increment(batch.size());
+        batchDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge.interval:PT1H}")
+    public void purgePublished() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(retention);
+        AtomicLong purgedRows = new AtomicLong();
+        productShards.forEach(shard -> purgedRows.addAndGet(
+            transactionTemplate.execute(status -> outboxRepository.deletePublishedBefore(cutoff))));
+        long purged = purgedRows.get();
+        if (purged > 0) {
+            log.debug("Purged {} published outbox events older than {}", purged, cutoff);
+        }
+    }
+
+    private void refreshBacklog() {
+        AtomicLong pending = new AtomicLong();
+        AtomicLong oldestAge = new AtomicLong();
+        productShards.forEach(shard -> {
+            pending.addAndGet(outboxRepository.countByPublishedAtIsNull());
+            outboxRepository.findFirstByPublishedAtIsNullOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedAt(), LocalDateTime.now(clock)).toMillis())
+                .ifPresent(age -> oldestAge.accumulateAndGet(age, Math::max));
+        });
+        pendingEvents.set(pending.get());
+        oldestPendingAgeMillis.set(oldestAge.get());
+    }
+}
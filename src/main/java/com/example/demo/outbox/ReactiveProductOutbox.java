@@ -0,0 +1,82 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+import com.example.demo.model.ProductEventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC counterpart of {@link ProductOutbox}. The returned publishers must be
+ * subscribed inside the reactive transaction that writes the product; the
+ * in-process {@link ProductChangedEvent} is published separately by the caller
+ * once that transaction has committed.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveProductOutbox {
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReactiveProductOutbox(DatabaseClient databaseClient,
+                                 ObjectMapper objectMapper,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Mono<ProductChangedEvent> productCreated(Product product) {
+        return append(ProductEventType.CREATED, product.getId(), product, null);
+    }
+
+    /**
+     * {@code previous} only travels with the in-process event; the outbox payload is the new state.
+     */
+    public Mono<ProductChangedEvent> productUpdated(Product previous, Product product) {
+        return append(ProductEventType.UPDATED, product.getId(), product, previous);
+    }
+
+    public Mono<ProductChangedEvent> productDeleted(Long id) {
+        return append(ProductEventType.DELETED, id, null, null);
+    }
+
+    public void publish(ProductChangedEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+
+    private Mono<ProductChangedEvent> append(ProductEventType eventType, Long productId, Product product,
+                                             Product previous) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient
+            .sql("INSERT INTO product_outbox (product_id, event_type, payload, created_at) "
+                + "VALUES (:productId, :eventType, :payload, :createdAt)")
+            .bind("productId", productId)
+            .bind("eventType", eventType.name())
+            .bind("createdAt", LocalDateTime.now());
+        insert = product != null
+            ? insert.bind("payload", toJson(product))
+            : insert.bindNull("payload", String.class);
+        return insert
+            .filter(statement -> statement.returnGeneratedValues("id"))
+            .map((row, metadata) -> row.get("id", Long.class))
+            .one()
+            .map(eventId -> new ProductChangedEvent(eventId, eventType, productId, product, previous));
+    }
+
+    private String toJson(Product product) {
+        try {
+            return objectMapper.writeValueAsString(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product " + product.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP request, from the outermost servlet filter to the written response,
+ * so authentication and response serialization are included. CPU and
+ * allocation samples taken on the same thread during the event are charged
+ * to its endpoint by {@link RecordingSummary}.
+ */
+@Name(EndpointEvent.NAME)
+@Label("Endpoint")
+@Description("HTTP request handled by the product API")
+@Category({"Demo", "Web"})
+@StackTrace(false)
+final class EndpointEvent extends Event {
+
+    static final String NAME = "com.example.demo.Endpoint";
+
+    @Label("Endpoint")
+    @Description("HTTP method and matched route, e.g. GET /api/v1/products/{id}")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+}
@@ -0,0 +1,53 @@
+package com.example.demo.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Wraps every request in an {@link EndpointEvent}. Runs ahead of the security
+ * filter chain so password hashing counts towards the endpoint. Costs one
+ * flag check per request while no recording is running.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EndpointProfilingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointEvent event = new EndpointEvent();
+        if (!event.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint(request);
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+
+    static String endpoint(HttpServletRequest request) {
+        // Route templates keep the number of distinct endpoints small; requests rejected before
+        // handler mapping (failed authentication, unknown paths) have none and are grouped together
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "(unmapped)");
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.profiling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@code /actuator/profiling}: JFR recordings on demand.
+ * <ul>
+ *   <li>{@code GET} - state of the continuous recording and the current session</li>
+ *   <li>{@code POST {"duration": "PT2M", "settings": "profile"}} - start a bounded session</li>
+ *   <li>{@code DELETE} - stop the session early</li>
+ *   <li>{@code GET /{recording}} - download {@code session} or {@code continuous} as a .jfr file</li>
+ *   <li>{@code GET /{recording}/summary} - top CPU and allocation frames per endpoint, and service call stats</li>
+ * </ul>
+ */
+@Component
+@WebEndpoint(id = "profiling")
+public class ProfilingEndpoint {
+
+    private final ProfilingRecorder recorder;
+    private final int topFrames;
+
+    public ProfilingEndpoint(ProfilingRecorder recorder,
+                             @Value("${profiling.top-frames:10}") int topFrames) {
+        this.recorder = recorder;
+        this.topFrames = topFrames;
+    }
+
+    @ReadOperation
+    public ProfilingRecorder.Status status() {
+        return recorder.status();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(@Nullable Duration duration, @Nullable String settings) {
+        try {
+            return new WebEndpointResponse<>(recorder.start(duration, settings));
+        } catch (IllegalArgumentException e) {
+            return error(WebEndpointResponse.STATUS_BAD_REQUEST, e);
+        } catch (IllegalStateException e) {
+            return error(409, e);
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<ProfilingRecorder.RecordingStatus> stop() {
+        ProfilingRecorder.RecordingStatus stopped = recorder.stop();
+        return stopped != null
+            ? new WebEndpointResponse<>(stopped)
+            : new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String recording) {
+        Path file = recorder.dump(recording);
+        return file != null
+            ? new WebEndpointResponse<>(new FileSystemResource(file))
+            : new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<RecordingSummary.Summary> summary(@Selector String recording, @Selector String view) {
+        Path file = "summary".equals(view) ? recorder.dump(recording) : null;
+        if (file == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        try {
+            return new WebEndpointResponse<>(RecordingSummary.summarize(file, topFrames));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static WebEndpointResponse<Object> error(int status, RuntimeException e) {
+        return new WebEndpointResponse<>(Map.of("error", e.getMessage()), status);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Owns the JDK Flight Recorder recordings behind the profiling endpoint.
+ * <p>
+ * The continuous recording ({@code profiling.continuous.enabled}) is a ring
+ * buffer holding the last {@code profiling.continuous.max-age} of data with
+ * JFR's "default" settings, which cost around 1% CPU; it can be dumped at any
+ * time, e.g. right after latency degrades. A session is an on-demand
+ * recording, optionally with the more detailed "profile" settings, that stops
+ * by itself after at most {@code profiling.max-duration}. Only one session
+ * exists at a time; its file is kept until the next one starts. All files go
+ * to {@code profiling.directory}.
+ */
+@Component
+public class ProfilingRecorder implements DisposableBean {
+
+    public static final String CONTINUOUS = "continuous";
+    public static final String SESSION = "session";
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilingRecorder.class);
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+    private final Duration eventThreshold;
+    private final boolean continuousEnabled;
+    private final Duration continuousMaxAge;
+    private final DataSize continuousMaxSize;
+
+    private Recording continuous;
+    private Recording session;
+    private String sessionSettings;
+    private Path sessionFile;
+    private Path continuousDump;
+
+    public ProfilingRecorder(@Value("${profiling.directory:${java.io.tmpdir}/demo-profiling}") String directory,
+                             @Value("${profiling.max-duration:PT10M}") Duration maxDuration,
+                             @Value("${profiling.max-size:256MB}") DataSize maxSize,
+                             @Value("${profiling.event-threshold:PT0S}") Duration eventThreshold,
+                             @Value("${profiling.continuous.enabled:false}") boolean continuousEnabled,
+                             @Value("${profiling.continuous.max-age:PT15M}") Duration continuousMaxAge,
+                             @Value("${profiling.continuous.max-size:128MB}") DataSize continuousMaxSize) {
+        this.directory = Path.of(directory);
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+        this.eventThreshold = eventThreshold;
+        this.continuousEnabled = continuousEnabled;
+        this.continuousMaxAge = continuousMaxAge;
+        this.continuousMaxSize = continuousMaxSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startContinuous() {
+        if (continuousEnabled) {
+            // Off the startup thread: starting JFR takes a few hundred milliseconds
+            CompletableFuture.runAsync(this::startContinuousRecording);
+        }
+    }
+
+    synchronized void startContinuousRecording() {
+        if (continuous != null) {
+            return;
+        }
+        try {
+            Recording recording = recording("default");
+            recording.setName("demo-continuous");
+            recording.setMaxAge(continuousMaxAge);
+            recording.setMaxSize(continuousMaxSize.toBytes());
+            recording.start();
+            continuous = recording;
+            log.info("Continuous JFR recording started, keeping the last {}", continuousMaxAge);
+        } catch (RuntimeException e) {
+            log.warn("Could not start the continuous JFR recording", e);
+        }
+    }
+
+    public synchronized Status status() {
+        return new Status(
+            continuous != null ? RecordingStatus.of(continuous, "default") : null,
+            session != null ? RecordingStatus.of(session, sessionSettings) : null);
+    }
+
+    /**
+     * Starts a session of {@code duration} (capped at {@code profiling.max-duration})
+     * with the named JFR settings, replacing the previous session's file.
+     *
+     * @throws IllegalStateException if a session is still running
+     * @throws IllegalArgumentException for settings other than "default" and "profile"
+     */
+    public synchronized RecordingStatus start(Duration duration, String settings) {
+        String name = settings != null ? settings : "profile";
+        if (!SETTINGS.contains(name)) {
+            throw new IllegalArgumentException("settings must be one of " + SETTINGS);
+        }
+        if (session != null && session.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A profiling session is already running");
+        }
+        discardSession();
+
+        Duration bounded = duration == null || duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+        Path file = directory.resolve("session-" + Instant.now().toEpochMilli() + ".jfr");
+        Recording recording = recording(name);
+        recording.setName("demo-session");
+        recording.setDuration(bounded);
+        recording.setMaxSize(maxSize.toBytes());
+        try {
+            Files.createDirectories(directory);
+            // Written when the recording stops, on its own or through stop()
+            recording.setDestination(file);
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+        session = recording;
+        sessionSettings = name;
+        sessionFile = file;
+        log.info("JFR profiling session started for {} with '{}' settings", bounded, name);
+        return RecordingStatus.of(recording, name);
+    }
+
+    /**
+     * Stops the running session early; its recording stays available.
+     *
+     * @return the stopped session, or null if none was running
+     */
+    public synchronized RecordingStatus stop() {
+        if (session == null || session.getState() != RecordingState.RUNNING) {
+            return null;
+        }
+        session.stop();
+        log.info("JFR profiling session stopped");
+        return RecordingStatus.of(session, sessionSettings);
+    }
+
+    /**
+     * A file with the named recording's data so far. A running session or the
+     * continuous recording is dumped without stopping it.
+     *
+     * @return the file, or null if there is no such recording
+     */
+    public synchronized Path dump(String recording) {
+        try {
+            if (SESSION.equals(recording) && session != null) {
+                if (session.getState() != RecordingState.RUNNING && Files.exists(sessionFile)) {
+                    return sessionFile;
+                }
+                Path snapshot = directory.resolve("session-running.jfr");
+                session.dump(snapshot);
+                return snapshot;
+            }
+            if (CONTINUOUS.equals(recording) && continuous != null) {
+                if (continuousDump != null) {
+                    Files.deleteIfExists(continuousDump);
+                }
+                Files.createDirectories(directory);
+                continuousDump = directory.resolve("continuous-" + Instant.now().toEpochMilli() + ".jfr");
+                continuous.dump(continuousDump);
+                return continuousDump;
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        discardSession();
+        if (continuous != null) {
+            continuous.close();
+            continuous = null;
+        }
+    }
+
+    private Recording recording(String settings) {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not load JFR settings '" + settings + "'", e);
+        }
+        recording.setToDisk(true);
+        recording.enable(EndpointEvent.class).withThreshold(eventThreshold);
+        recording.enable(ServiceCallEvent.class).withThreshold(eventThreshold);
+        return recording;
+    }
+
+    private void discardSession() {
+        if (session == null) {
+            return;
+        }
+        session.close();
+        try {
+            Files.deleteIfExists(sessionFile);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", sessionFile, e);
+        }
+        session = null;
+        sessionFile = null;
+    }
+
+    public record Status(RecordingStatus continuous, RecordingStatus session) {}
+
+    public record RecordingStatus(String name, String settings, String state, Instant startTime,
+                                  Instant stopTime, Duration maxDuration, Duration maxAge, long sizeBytes) {
+
+        static RecordingStatus of(Recording recording, String settings) {
+            return new RecordingStatus(recording.getName(), settings, recording.getState().name(),
+                recording.getStartTime(), recording.getStopTime(), recording.getDuration(),
+                recording.getMaxAge(), recording.getSize());
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint digest of a JFR recording: request counts and time from the
+ * {@link EndpointEvent}s, the hottest CPU and allocation frames of each
+ * endpoint, and call counts, cache hits and rows per service method.
+ * <p>
+ * CPU samples ({@code jdk.ExecutionSample}) and allocation samples
+ * ({@code jdk.ObjectAllocationSample}, weighted by bytes) are charged to the
+ * endpoint whose request was running on the sampled thread at the time;
+ * samples outside any request are reported under "(background)". A frame is
+ * the innermost one outside the JDK, so time in collections, crypto or I/O is
+ * charged to the library or application code that called it, e.g. BCrypt,
+ * Hibernate or Jackson.
+ */
+public final class RecordingSummary {
+
+    static final String BACKGROUND = "(background)";
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String[] JDK_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+    private RecordingSummary() {
+    }
+
+    public static Summary summarize(Path file, int topFrames) throws IOException {
+        Map<Long, List<Request>> requestsByThread = new HashMap<>();
+        Map<String, EndpointTotals> endpoints = new TreeMap<>();
+        Map<String, ServiceProfile> services = new TreeMap<>();
+        Instant start = null;
+        Instant end = null;
+
+        // First pass: request intervals per thread, so samples can be matched in the second
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                start = start == null || event.getStartTime().isBefore(start) ? event.getStartTime() : start;
+                end = end == null || event.getEndTime().isAfter(end) ? event.getEndTime() : end;
+                String type = event.getEventType().getName();
+                if (type.equals(EndpointEvent.NAME) && event.getThread() != null) {
+                    String endpoint = event.getString("endpoint");
+                    requestsByThread.computeIfAbsent(event.getThread().getJavaThreadId(), thread -> new ArrayList<>())
+                        .add(new Request(nanos(event.getStartTime()), nanos(event.getEndTime()), endpoint));
+                    endpoints.computeIfAbsent(endpoint, EndpointTotals::new).request(event);
+                } else if (type.equals(ServiceCallEvent.NAME)) {
+                    services.merge(event.getString("operation"), ServiceProfile.of(event), ServiceProfile::plus);
+                }
+            }
+        }
+        requestsByThread.values().forEach(requests -> requests.sort(Comparator.comparingLong(Request::start)));
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String type = event.getEventType().getName();
+                if (type.equals(EXECUTION_SAMPLE)) {
+                    String endpoint = endpointAt(requestsByThread, event.getThread("sampledThread"), event);
+                    endpoints.computeIfAbsent(endpoint, EndpointTotals::new).cpu.merge(frame(event), 1L, Long::sum);
+                } else if (type.equals(ALLOCATION_SAMPLE)) {
+                    String endpoint = endpointAt(requestsByThread, event.getThread(), event);
+                    endpoints.computeIfAbsent(endpoint, EndpointTotals::new).allocation
+                        .merge(frame(event), event.getLong("weight"), Long::sum);
+                }
+            }
+        }
+
+        return new Summary(start, end,
+            endpoints.values().stream().map(totals -> totals.profile(topFrames)).toList(),
+            List.copyOf(services.values()));
+    }
+
+    private static String endpointAt(Map<Long, List<Request>> requestsByThread, RecordedThread thread,
+                                     RecordedEvent sample) {
+        List<Request> requests = thread != null ? requestsByThread.get(thread.getJavaThreadId()) : null;
+        if (requests == null) {
+            return BACKGROUND;
+        }
+        long time = nanos(sample.getStartTime());
+        // Last request that started at or before the sample
+        int low = 0;
+        int high = requests.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (requests.get(middle).start() <= time) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found >= 0 && time <= requests.get(found).end() ? requests.get(found).endpoint() : BACKGROUND;
+    }
+
+    private static String frame(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(no stack trace)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && !isJdk(frame.getMethod().getType().getName())) {
+                return name(frame);
+            }
+        }
+        return name(frames.get(0));
+    }
+
+    private static boolean isJdk(String type) {
+        for (String prefix : JDK_PACKAGES) {
+            if (type.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String name(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static List<Frame> top(Map<String, Long> weights, int limit) {
+        long total = weights.values().stream().mapToLong(Long::longValue).sum();
+        return weights.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(limit)
+            .map(entry -> new Frame(entry.getKey(), entry.getValue(), 100.0 * entry.getValue() / total))
+            .toList();
+    }
+
+    private record Request(long start, long end, String endpoint) {}
+
+    private static final class EndpointTotals {
+
+        private final String endpoint;
+        private final Map<String, Long> cpu = new HashMap<>();
+        private final Map<String, Long> allocation = new HashMap<>();
+        private long requests;
+        private long errors;
+        private long totalNanos;
+        private long maxNanos;
+
+        EndpointTotals(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void request(RecordedEvent event) {
+            long nanos = event.getDuration().toNanos();
+            requests++;
+            if (event.getInt("status") >= 500) {
+                errors++;
+            }
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        EndpointProfile profile(int topFrames) {
+            return new EndpointProfile(endpoint, requests, errors, totalNanos / 1e6, maxNanos / 1e6,
+                cpu.values().stream().mapToLong(Long::longValue).sum(), top(cpu, topFrames),
+                allocation.values().stream().mapToLong(Long::longValue).sum(), top(allocation, topFrames));
+        }
+    }
+
+    public record Summary(Instant start, Instant end, List<EndpointProfile> endpoints, List<ServiceProfile> services) {}
+
+    /**
+     * @param cpuSamples      execution samples taken while requests to the endpoint ran
+     * @param allocatedBytes  estimated bytes allocated, from the weights of allocation samples
+     */
+    public record EndpointProfile(String endpoint, long requests, long serverErrors, double totalMillis,
+                                  double maxMillis, long cpuSamples, List<Frame> cpu,
+                                  long allocatedBytes, List<Frame> allocation) {}
+
+    public record ServiceProfile(String operation, long calls, long cacheHits, long rows, double totalMillis) {
+
+        static ServiceProfile of(RecordedEvent event) {
+            return new ServiceProfile(event.getString("operation"), 1, event.getBoolean("cacheHit") ? 1 : 0,
+                event.getInt("rows"), event.getDuration().toNanos() / 1e6);
+        }
+
+        ServiceProfile plus(ServiceProfile other) {
+            return new ServiceProfile(operation, calls + other.calls, cacheHits + other.cacheHits,
+                rows + other.rows, totalMillis + other.totalMillis);
+        }
+    }
+
+    /**
+     * @param weight  samples for CPU, bytes for allocation
+     * @param percent share of the endpoint's total
+     */
+    public record Frame(String frame, long weight, double percent) {}
+}
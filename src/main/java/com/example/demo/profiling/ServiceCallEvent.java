@@ -0,0 +1,38 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to a public method of a {@code @Service} bean, including its
+ * transaction and cache handling.
+ */
+@Name(ServiceCallEvent.NAME)
+@Label("Service Call")
+@Description("Call to an application service method")
+@Category({"Demo", "Service"})
+@StackTrace(false)
+final class ServiceCallEvent extends Event {
+
+    static final String NAME = "com.example.demo.ServiceCall";
+
+    @Label("Operation")
+    @Description("Service class and method, e.g. ProductServiceImpl.getProductById")
+    String operation;
+
+    @Label("Product Id")
+    @Description("Id the call was made for, or 0")
+    long productId;
+
+    @Label("Rows")
+    @Description("Products or rows returned")
+    int rows;
+
+    @Label("Cache Hit")
+    @Description("Answered by the cache without running the method")
+    boolean cacheHit;
+}
@@ -0,0 +1,149 @@
+package com.example.demo.profiling;
+
+import com.example.demo.model.Product;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Emits a {@link ServiceCallEvent} around every public method of the
+ * application's {@code @Service} beans.
+ * <p>
+ * Beans already proxied for transactions or caching get two extra advisors:
+ * one in front of the existing chain, which times the call, and one right
+ * before the target, which notes that the method body actually ran. A call
+ * that returns without reaching the target was answered by
+ * {@code @Cacheable}. Runs after the auto-proxy creator, being an unordered
+ * post-processor, so the existing proxy is the one extended.
+ * <p>
+ * Methods returning a {@link Publisher} are skipped: the call only assembles the
+ * pipeline, and the work runs later on whichever thread subscribes.
+ */
+@Component
+public class ServiceProfilingPostProcessor implements BeanPostProcessor {
+
+    private static final String APPLICATION_PACKAGE = "com.example.demo";
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> type = AopUtils.getTargetClass(bean);
+        if (!type.getPackageName().startsWith(APPLICATION_PACKAGE)
+                || !AnnotatedElementUtils.hasAnnotation(type, Service.class)) {
+            return bean;
+        }
+        PublicMethods pointcut = new PublicMethods();
+        if (!AopUtils.canApply(pointcut, type)) {
+            return bean;
+        }
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvisor(0, new DefaultPointcutAdvisor(pointcut, new Timing(type)));
+            advised.addAdvisor(new DefaultPointcutAdvisor(pointcut, new TargetReached()));
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(pointcut, new Timing(type)));
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(pointcut, new TargetReached()));
+        return proxyFactory.getProxy(type.getClassLoader());
+    }
+
+    /**
+     * Id the call concerns: a leading {@code Long} argument (getById, update,
+     * delete), else the id of a returned product (create).
+     */
+    static long productId(Object[] arguments, Object result) {
+        if (arguments.length > 0 && arguments[0] instanceof Long id) {
+            return id;
+        }
+        if (result instanceof Product product && product.getId() != null) {
+            return product.getId();
+        }
+        return 0;
+    }
+
+    static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return result == null ? 0 : 1;
+    }
+
+    private static final class Call {
+        boolean reached;
+    }
+
+    private static final class PublicMethods extends StaticMethodMatcherPointcut {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class
+                && !Publisher.class.isAssignableFrom(method.getReturnType());
+        }
+    }
+
+    private static final class Timing implements MethodInterceptor {
+
+        private final String typeName;
+
+        Timing(Class<?> type) {
+            this.typeName = type.getSimpleName();
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            ServiceCallEvent event = new ServiceCallEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+            Call outer = CURRENT.get();
+            Call call = new Call();
+            CURRENT.set(call);
+            event.begin();
+            Object result = null;
+            boolean completed = false;
+            try {
+                result = invocation.proceed();
+                completed = true;
+                return result;
+            } finally {
+                event.end();
+                CURRENT.set(outer);
+                if (event.shouldCommit()) {
+                    event.operation = typeName + "." + invocation.getMethod().getName();
+                    event.productId = productId(invocation.getArguments(), result);
+                    event.rows = rows(result);
+                    event.cacheHit = completed && !call.reached;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    private static final class TargetReached implements MethodInterceptor {
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Call call = CURRENT.get();
+            if (call != null) {
+                call.reached = true;
+            }
+            return invocation.proceed();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Catalog-wide totals computed by the database.
+ */
+public interface InventorySummary {
+    Long getProductCount();
+
+    Long getTotalUnits();
+
+    BigDecimal getInventoryValue();
+
+    Long getOutOfStockCount();
+}
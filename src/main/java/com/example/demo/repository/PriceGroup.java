@@ -0,0 +1,14 @@
+package com.example.demo.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Products sharing one price, with their total stock.
+ */
+public interface PriceGroup {
+    BigDecimal getPrice();
+
+    Long getProducts();
+
+    Long getUnits();
+}
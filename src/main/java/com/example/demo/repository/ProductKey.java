@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+/**
+ * Identifying columns of a product, for scans that don't need the whole row.
+ */
+public interface ProductKey {
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ProductEventType;
+import com.example.demo.model.ProductOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductOutboxRepository extends JpaRepository<ProductOutboxEvent, Long> {
+    List<ProductOutboxEvent> findByPublishedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    Optional<ProductOutboxEvent> findFirstByPublishedAtIsNullOrderByIdAsc();
+
+    long countByPublishedAtIsNull();
+
+    @Modifying
+    @Query("UPDATE ProductOutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(Collection<Long> ids, LocalDateTime publishedAt);
+
+    @Query("SELECT e.productId FROM ProductOutboxEvent e WHERE e.eventType = :eventType AND e.createdAt > :since")
+    List<Long> findProductIdsByEventTypeSince(ProductEventType eventType, LocalDateTime since);
+
+    @Query("SELECT MAX(e.id) FROM ProductOutboxEvent e")
+    Long findLastEventId();
+
+    @Modifying
+    @Query("DELETE FROM ProductOutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(LocalDateTime cutoff);
+}
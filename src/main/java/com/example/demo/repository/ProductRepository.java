@@ -1,16 +1,21 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     Optional<Product> findByName(String name);
     
     List<Product> findByPriceLessThanEqual(BigDecimal price);
@@ -19,4 +24,55 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findLowStockProducts(Integer threshold);
     
     boolean existsByName(String name);
+
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    List<String> findExistingNames(Collection<String> names);
+
+    @Query("SELECT p.id FROM Product p ORDER BY p.updatedAt DESC")
+    List<Long> findRecentlyUpdatedIds(Pageable pageable);
+
+    /**
+     * Streams id and name of every product; must be consumed inside a transaction.
+     */
+    @Query("SELECT p.id AS id, p.name AS name FROM Product p")
+    Stream<ProductKey> streamKeys();
+
+    /**
+     * Streams every product in id order as unmanaged instances, so long scans don't
+     * grow the persistence context; must be consumed inside a transaction.
+     */
+    @Query("SELECT new com.example.demo.model.Product(p.id, p.name, p.description, p.price, p.stockQuantity, "
+        + "p.createdAt, p.updatedAt) FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllOrderById();
+
+    /**
+     * Products updated after {@code since}, as unmanaged instances like {@link #streamAllOrderById()}.
+     */
+    @Query("SELECT new com.example.demo.model.Product(p.id, p.name, p.description, p.price, p.stockQuantity, "
+        + "p.createdAt, p.updatedAt) FROM Product p WHERE p.updatedAt > :since")
+    List<Product> findByUpdatedAtGreaterThan(LocalDateTime since);
+
+    @Query("SELECT MAX(p.updatedAt) FROM Product p")
+    LocalDateTime findLastUpdatedAt();
+
+    @Query("SELECT COUNT(p) AS productCount, COALESCE(SUM(p.stockQuantity), 0) AS totalUnits, "
+        + "COALESCE(SUM(p.price * p.stockQuantity), 0) AS inventoryValue, "
+        + "COALESCE(SUM(CASE WHEN p.stockQuantity <= 0 THEN 1 ELSE 0 END), 0) AS outOfStockCount FROM Product p")
+    InventorySummary summarizeInventory();
+
+    /**
+     * Product count and units per distinct price; far fewer rows than products,
+     * and bucketed by the caller so any bucket width can share one query shape.
+     */
+    @Query("SELECT p.price AS price, COUNT(p) AS products, SUM(p.stockQuantity) AS units "
+        + "FROM Product p GROUP BY p.price")
+    List<PriceGroup> groupByPrice();
+
+    @Query("SELECT p.stockQuantity AS stockQuantity, COUNT(p) AS products, "
+        + "SUM(p.price * p.stockQuantity) AS inventoryValue FROM Product p GROUP BY p.stockQuantity")
+    List<StockGroup> groupByStockQuantity();
+
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id = :id")
+    int deleteProductById(Long id);
 } 
\ No newline at end of file
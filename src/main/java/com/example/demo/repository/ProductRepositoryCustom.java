@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductField;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface ProductRepositoryCustom {
+    /**
+     * Issues a single {@code UPDATE} touching only the non-null fields of {@code changes}
+     * (plus {@code updatedAt}), reading the row as it was before the update in the same
+     * round-trip.
+     *
+     * @return the product before the update, empty if no product has the given id
+     */
+    Optional<Product> updatePartially(Long id, Product changes, LocalDateTime updatedAt);
+
+    /**
+     * Selects only the given columns, ordered by id, optionally filtered by
+     * maximum price and/or stock threshold (a null filter is not applied).
+     * Each row maps property name to value, in {@code fields} order.
+     */
+    List<Map<String, Object>> findFields(Set<ProductField> fields, BigDecimal maxPrice, Integer lowStockThreshold);
+
+    /**
+     * Selects only the given columns of one product.
+     */
+    Optional<Map<String, Object>> findFieldsById(Long id, Set<ProductField> fields);
+}
@@ -0,0 +1,123 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Product> updatePartially(Long id, Product changes, LocalDateTime updatedAt) {
+        // H2's OLD TABLE returns the rows the UPDATE replaced, so no second statement reads them
+        StringBuilder sql = new StringBuilder("SELECT * FROM OLD TABLE (UPDATE products SET updated_at = :updatedAt");
+        if (changes.getName() != null) {
+            sql.append(", name = :name");
+        }
+        if (changes.getDescription() != null) {
+            sql.append(", description = :description");
+        }
+        if (changes.getPrice() != null) {
+            sql.append(", price = :price");
+        }
+        if (changes.getStockQuantity() != null) {
+            sql.append(", stock_quantity = :stockQuantity");
+        }
+        sql.append(" WHERE id = :id)");
+
+        Query update = entityManager.createNativeQuery(sql.toString(), Product.class)
+            .setParameter("id", id)
+            .setParameter("updatedAt", updatedAt);
+        if (changes.getName() != null) {
+            update.setParameter("name", changes.getName());
+        }
+        if (changes.getDescription() != null) {
+            update.setParameter("description", changes.getDescription());
+        }
+        if (changes.getPrice() != null) {
+            update.setParameter("price", changes.getPrice());
+        }
+        if (changes.getStockQuantity() != null) {
+            update.setParameter("stockQuantity", changes.getStockQuantity());
+        }
+
+        // Same contract as @Modifying(flushAutomatically = true, clearAutomatically = true);
+        // clearing first also keeps a managed instance from standing in for the returned row
+        entityManager.flush();
+        entityManager.clear();
+        List<?> previous = update.getResultList();
+        entityManager.clear();
+        return previous.stream().findFirst().map(Product.class::cast);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(Set<ProductField> fields, BigDecimal maxPrice, Integer lowStockThreshold) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+
+        List<Predicate> filters = new ArrayList<>();
+        if (maxPrice != null) {
+            filters.add(cb.lessThanOrEqualTo(product.<BigDecimal>get("price"), maxPrice));
+        }
+        if (lowStockThreshold != null) {
+            filters.add(cb.lessThanOrEqualTo(product.<Integer>get("stockQuantity"), lowStockThreshold));
+        }
+        query.multiselect(selections(product, fields))
+            .where(filters.toArray(Predicate[]::new))
+            .orderBy(cb.asc(product.get("id")));
+
+        return entityManager.createQuery(query).getResultStream()
+            .map(row -> toMap(row, fields))
+            .toList();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Set<ProductField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        query.multiselect(selections(product, fields))
+            .where(cb.equal(product.get("id"), id));
+
+        return entityManager.createQuery(query).getResultStream()
+            .findFirst()
+            .map(row -> toMap(row, fields));
+    }
+
+    // Scalar selections only, so unselected columns (e.g. description) are never read
+    private static List<Selection<?>> selections(Root<Product> product, Set<ProductField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (ProductField field : fields) {
+            selections.add(product.get(field.getProperty()).alias(field.getProperty()));
+        }
+        return selections;
+    }
+
+    private static Map<String, Object> toMap(Tuple row, Set<ProductField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (ProductField field : fields) {
+            values.put(field.getProperty(), row.get(field.getProperty()));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Product;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Non-blocking access to the {@code products} table over R2DBC, mirroring the
+ * queries of {@link ProductRepository}. Result sets are streamed row by row, so
+ * downstream demand throttles how fast rows are read.
+ */
+@Repository
+public class ReactiveProductRepository {
+
+    private static final String COLUMNS =
+        "id, name, description, price, stock_quantity, created_at, updated_at";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveProductRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Product> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products ORDER BY id")
+            .map((row, metadata) -> toProduct(row))
+            .all();
+    }
+
+    public Mono<Product> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products WHERE id = :id")
+            .bind("id", id)
+            .map((row, metadata) -> toProduct(row))
+            .one();
+    }
+
+    public Flux<Product> findAllById(Collection<Long> ids) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products WHERE id IN (:ids)")
+            .bind("ids", ids)
+            .map((row, metadata) -> toProduct(row))
+            .all();
+    }
+
+    public Flux<Product> findByPriceLessThanEqual(BigDecimal price) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products WHERE price <= :price ORDER BY id")
+            .bind("price", price)
+            .map((row, metadata) -> toProduct(row))
+            .all();
+    }
+
+    public Flux<Product> findLowStockProducts(Integer threshold) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products WHERE stock_quantity <= :threshold ORDER BY id")
+            .bind("threshold", threshold)
+            .map((row, metadata) -> toProduct(row))
+            .all();
+    }
+
+    public Mono<Boolean> existsByName(String name) {
+        return databaseClient.sql("SELECT COUNT(*) FROM products WHERE name = :name")
+            .bind("name", name)
+            .map((row, metadata) -> row.get(0, Long.class))
+            .one()
+            .map(count -> count > 0);
+    }
+
+    public Mono<Product> insert(Product product) {
+        LocalDateTime now = LocalDateTime.now();
+        product.setCreatedAt(now);
+        product.setUpdatedAt(now);
+        return databaseClient.sql("INSERT INTO products (name, description, price, stock_quantity, created_at, updated_at) "
+                + "VALUES (:name, :description, :price, :stockQuantity, :createdAt, :updatedAt)")
+            .bind("name", product.getName())
+            .bind("description", product.getDescription())
+            .bind("price", product.getPrice())
+            .bind("stockQuantity", product.getStockQuantity())
+            .bind("createdAt", now)
+            .bind("updatedAt", now)
+            .filter(statement -> statement.returnGeneratedValues("id"))
+            .map((row, metadata) -> row.get("id", Long.class))
+            .one()
+            .map(id -> {
+                product.setId(id);
+                return product;
+            });
+    }
+
+    /**
+     * Updates only the non-null fields of {@code changes} (plus {@code updated_at}),
+     * reading the row as it was before the update in the same statement.
+     *
+     * @return the product before the update, empty if no product has the given id
+     */
+    public Mono<Product> updatePartially(Long id, Product changes, LocalDateTime updatedAt) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS
+            + " FROM OLD TABLE (UPDATE products SET updated_at = :updatedAt");
+        if (changes.getName() != null) {
+            sql.append(", name = :name");
+        }
+        if (changes.getDescription() != null) {
+            sql.append(", description = :description");
+        }
+        if (changes.getPrice() != null) {
+            sql.append(", price = :price");
+        }
+        if (changes.getStockQuantity() != null) {
+            sql.append(", stock_quantity = :stockQuantity");
+        }
+        sql.append(" WHERE id = :id)");
+
+        DatabaseClient.GenericExecuteSpec update = databaseClient.sql(sql.toString())
+            .bind("id", id)
+            .bind("updatedAt", updatedAt);
+        if (changes.getName() != null) {
+            update = update.bind("name", changes.getName());
+        }
+        if (changes.getDescription() != null) {
+            update = update.bind("description", changes.getDescription());
+        }
+        if (changes.getPrice() != null) {
+            update = update.bind("price", changes.getPrice());
+        }
+        if (changes.getStockQuantity() != null) {
+            update = update.bind("stockQuantity", changes.getStockQuantity());
+        }
+        return update.map((row, metadata) -> toProduct(row)).one();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM products WHERE id = :id")
+            .bind("id", id)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private static Product toProduct(Row row) {
+        return Product.builder()
+            .id(row.get("id", Long.class))
+            .name(row.get("name", String.class))
+            .description(row.get("description", String.class))
+            .price(row.get("price", BigDecimal.class))
+            .stockQuantity(row.get("stock_quantity", Integer.class))
+            .createdAt(row.get("created_at", LocalDateTime.class))
+            .updatedAt(row.get("updated_at", LocalDateTime.class))
+            .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Products sharing one stock quantity, with their total inventory value.
+ */
+public interface StockGroup {
+    Integer getStockQuantity();
+
+    Long getProducts();
+
+    BigDecimal getInventoryValue();
+}
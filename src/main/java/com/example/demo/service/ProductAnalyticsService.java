@@ -0,0 +1,27 @@
+package com.example.demo.service;
+
+import com.example.demo.model.InventoryValuation;
+import com.example.demo.model.PriceBucket;
+import com.example.demo.model.StockBucket;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Catalog-wide aggregates, computed server-side instead of by clients downloading
+ * every product. Results are reused until the catalog changes.
+ */
+public interface ProductAnalyticsService {
+    InventoryValuation getValuation();
+
+    /**
+     * Non-empty price buckets of the given width, lowest first.
+     */
+    List<PriceBucket> getPriceHistogram(BigDecimal bucketWidth);
+
+    /**
+     * Products per stock level; {@code upperBounds} are strictly ascending inclusive
+     * bucket limits, with one more open-ended bucket above the last.
+     */
+    List<StockBucket> getStockLevels(int[] upperBounds);
+}
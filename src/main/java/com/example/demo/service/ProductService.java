@@ -1,15 +1,29 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Product;
+import com.example.demo.model.ProductField;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public interface ProductService {
     Product createProduct(Product product);
     
+    /**
+     * Creates all products in one transaction, in request order; a duplicate name rejects the whole batch.
+     */
+    List<Product> createProducts(List<Product> products);
+    
     Optional<Product> getProductById(Long id);
     
+    /**
+     * Products with the given ids, in request order; unknown ids are left out.
+     */
+    List<Product> getProductsByIds(Collection<Long> ids);
+    
     List<Product> getAllProducts();
     
     Optional<Product> getProductByName(String name);
@@ -18,6 +32,13 @@ public interface ProductService {
     
     List<Product> getLowStockProducts(Integer threshold);
     
+    /**
+     * Only the given fields of each product, ordered by id; a null filter is not applied.
+     */
+    List<Map<String, Object>> getProductFields(Set<ProductField> fields, BigDecimal maxPrice, Integer lowStockThreshold);
+    
+    Optional<Map<String, Object>> getProductFieldsById(Long id, Set<ProductField> fields);
+    
     Product updateProduct(Long id, Product product);
     
     void deleteProduct(Long id);
@@ -0,0 +1,26 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+public interface ReactiveProductService {
+    Mono<Product> createProduct(Product product);
+
+    Mono<Product> getProductById(Long id);
+
+    Flux<Product> getProductsByIds(Collection<Long> ids);
+
+    Flux<Product> getAllProducts();
+
+    Flux<Product> getProductsByPriceLessThanEqual(BigDecimal price);
+
+    Flux<Product> getLowStockProducts(Integer threshold);
+
+    Mono<Product> updateProduct(Long id, Product product);
+
+    Mono<Void> deleteProduct(Long id);
+}
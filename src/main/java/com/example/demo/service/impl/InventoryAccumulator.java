@@ -0,0 +1,212 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.InventoryValuation;
+import com.example.demo.model.PriceBucket;
+import com.example.demo.model.StockBucket;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mutable, single-threaded aggregate over a pass through the catalog; parallel
+ * passes give each worker its own accumulator and {@link #merge} them. Prices
+ * arrive as unscaled value and scale, so the common case adds {@code long}s and
+ * only falls back to {@code BigDecimal} on overflow or mixed scales.
+ */
+interface InventoryAccumulator<A extends InventoryAccumulator<A>> {
+
+    void add(long unscaledPrice, int priceScale, int stockQuantity);
+
+    void merge(A other);
+
+    default void add(BigDecimal price, int stockQuantity) {
+        add(price.unscaledValue().longValueExact(), price.scale(), stockQuantity);
+    }
+
+    /**
+     * Exact sum of {@code price * quantity} terms.
+     */
+    final class ValueSum {
+        private long unscaled;
+        private int scale = -1;
+        private BigDecimal overflow = BigDecimal.ZERO;
+
+        void add(long unscaledPrice, int priceScale, long quantity) {
+            if (scale < 0) {
+                scale = priceScale;
+            }
+            if (priceScale == scale) {
+                try {
+                    unscaled = Math.addExact(unscaled, Math.multiplyExact(unscaledPrice, quantity));
+                    return;
+                } catch (ArithmeticException e) {
+                    // fall through to BigDecimal
+                }
+            }
+            overflow = overflow.add(BigDecimal.valueOf(unscaledPrice, priceScale).multiply(BigDecimal.valueOf(quantity)));
+        }
+
+        void add(BigDecimal value) {
+            overflow = overflow.add(value);
+        }
+
+        void merge(ValueSum other) {
+            overflow = overflow.add(other.total());
+        }
+
+        BigDecimal total() {
+            BigDecimal total = scale < 0 ? BigDecimal.ZERO : BigDecimal.valueOf(unscaled, scale);
+            return total.add(overflow);
+        }
+    }
+
+    final class Valuation implements InventoryAccumulator<Valuation> {
+        private long products;
+        private long units;
+        private long outOfStock;
+        private final ValueSum value = new ValueSum();
+
+        @Override
+        public void add(long unscaledPrice, int priceScale, int stockQuantity) {
+            products++;
+            units += stockQuantity;
+            if (stockQuantity <= 0) {
+                outOfStock++;
+            }
+            value.add(unscaledPrice, priceScale, stockQuantity);
+        }
+
+        @Override
+        public void merge(Valuation other) {
+            products += other.products;
+            units += other.units;
+            outOfStock += other.outOfStock;
+            value.merge(other.value);
+        }
+
+        InventoryValuation result() {
+            return new InventoryValuation(products, units, value.total(), outOfStock);
+        }
+    }
+
+    final class PriceHistogram implements InventoryAccumulator<PriceHistogram> {
+        private final BigDecimal width;
+        // bucket index -> {products, units}
+        private final Map<Long, long[]> buckets = new HashMap<>();
+        private int widthScale = -1;
+        private long unscaledWidth;
+
+        PriceHistogram(BigDecimal width) {
+            this.width = width;
+        }
+
+        @Override
+        public void add(long unscaledPrice, int priceScale, int stockQuantity) {
+            long[] bucket = buckets.computeIfAbsent(index(unscaledPrice, priceScale), index -> new long[2]);
+            bucket[0]++;
+            bucket[1] += stockQuantity;
+        }
+
+        /**
+         * Adds a group of {@code products} sharing one price.
+         */
+        void add(BigDecimal price, long products, long units) {
+            long[] bucket = buckets.computeIfAbsent(index(price), index -> new long[2]);
+            bucket[0] += products;
+            bucket[1] += units;
+        }
+
+        @Override
+        public void merge(PriceHistogram other) {
+            other.buckets.forEach((index, counts) -> {
+                long[] bucket = buckets.computeIfAbsent(index, i -> new long[2]);
+                bucket[0] += counts[0];
+                bucket[1] += counts[1];
+            });
+        }
+
+        List<PriceBucket> result() {
+            List<PriceBucket> result = new ArrayList<>(buckets.size());
+            new TreeMap<>(buckets).forEach((index, counts) -> {
+                BigDecimal min = width.multiply(BigDecimal.valueOf(index));
+                result.add(new PriceBucket(min, min.add(width), counts[0], counts[1]));
+            });
+            return result;
+        }
+
+        private long index(long unscaledPrice, int priceScale) {
+            if (priceScale != widthScale) {
+                // Width in units of the price's scale, if it is a whole number of them
+                BigDecimal scaled = width.movePointRight(priceScale);
+                if (scaled.stripTrailingZeros().scale() > 0) {
+                    return index(BigDecimal.valueOf(unscaledPrice, priceScale));
+                }
+                widthScale = priceScale;
+                unscaledWidth = scaled.longValueExact();
+            }
+            return Math.floorDiv(unscaledPrice, unscaledWidth);
+        }
+
+        private long index(BigDecimal price) {
+            return price.divide(width, 0, RoundingMode.FLOOR).longValueExact();
+        }
+    }
+
+    final class StockLevels implements InventoryAccumulator<StockLevels> {
+        private final int[] upperBounds;
+        private final long[] products;
+        private final ValueSum[] values;
+
+        StockLevels(int[] upperBounds) {
+            this.upperBounds = upperBounds;
+            this.products = new long[upperBounds.length + 1];
+            this.values = new ValueSum[upperBounds.length + 1];
+            Arrays.setAll(values, i -> new ValueSum());
+        }
+
+        @Override
+        public void add(long unscaledPrice, int priceScale, int stockQuantity) {
+            int bucket = bucket(stockQuantity);
+            products[bucket]++;
+            values[bucket].add(unscaledPrice, priceScale, stockQuantity);
+        }
+
+        /**
+         * Adds a group of {@code count} products sharing one stock quantity.
+         */
+        void add(int stockQuantity, long count, BigDecimal value) {
+            int bucket = bucket(stockQuantity);
+            products[bucket] += count;
+            values[bucket].add(value);
+        }
+
+        @Override
+        public void merge(StockLevels other) {
+            for (int i = 0; i < products.length; i++) {
+                products[i] += other.products[i];
+                values[i].merge(other.values[i]);
+            }
+        }
+
+        List<StockBucket> result() {
+            List<StockBucket> result = new ArrayList<>(products.length);
+            for (int i = 0; i < products.length; i++) {
+                Integer min = i == 0 ? null : upperBounds[i - 1] + 1;
+                Integer max = i == upperBounds.length ? null : upperBounds[i];
+                result.add(new StockBucket(min, max, products[i], values[i].total()));
+            }
+            return result;
+        }
+
+        private int bucket(int stockQuantity) {
+            int position = Arrays.binarySearch(upperBounds, stockQuantity);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.InventoryValuation;
+import com.example.demo.model.PriceBucket;
+import com.example.demo.model.Product;
+import com.example.demo.model.StockBucket;
+import com.example.demo.repository.InventorySummary;
+import com.example.demo.repository.ProductOutboxRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.ProductAnalyticsService;
+import com.example.demo.shard.ProductShards;
+import com.example.demo.snapshot.CatalogSnapshot;
+import com.example.demo.snapshot.ProductReadModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Computes analytics with one parallel pass over the {@link ProductReadModel} when
+ * it is ready, and with aggregate queries otherwise (on every shard in parallel,
+ * combined here). Either way the result is cached under a catalog version and
+ * reused until the version moves.
+ */
+@Service
+@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+public class ProductAnalyticsServiceImpl implements ProductAnalyticsService {
+
+    static final int MAX_STOCK_BOUNDS = 100;
+    private static final int MAX_CACHED_RESULTS = 256;
+
+    private final ProductRepository productRepository;
+    private final ProductOutboxRepository outboxRepository;
+    private final ProductReadModel productReadModel;
+    private final ProductShards productShards;
+    private final Map<String, Cached> results = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer readModelPasses;
+    private final Timer databasePasses;
+
+    public ProductAnalyticsServiceImpl(ProductRepository productRepository,
+                                       ProductOutboxRepository outboxRepository,
+                                       ProductReadModel productReadModel,
+                                       ProductShards productShards,
+                                       MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.outboxRepository = outboxRepository;
+        this.productReadModel = productReadModel;
+        this.productShards = productShards;
+
+        this.hits = Counter.builder("product.analytics.requests").tag("result", "hit")
+            .description("Analytics requests by whether a cached result was current")
+            .register(meterRegistry);
+        this.misses = Counter.builder("product.analytics.requests").tag("result", "miss")
+            .description("Analytics requests by whether a cached result was current")
+            .register(meterRegistry);
+        this.readModelPasses = Timer.builder("product.analytics.compute").tag("source", "read-model")
+            .description("Time to compute an analytics result")
+            .register(meterRegistry);
+        this.databasePasses = Timer.builder("product.analytics.compute").tag("source", "database")
+            .description("Time to compute an analytics result")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public InventoryValuation getValuation() {
+        return cached("valuation",
+            () -> scan(InventoryAccumulator.Valuation::new).result(),
+            () -> {
+                long products = 0;
+                long units = 0;
+                long outOfStock = 0;
+                BigDecimal value = BigDecimal.ZERO;
+                for (InventorySummary summary : productShards.scatter(shard -> productRepository.summarizeInventory())) {
+                    products += summary.getProductCount();
+                    units += summary.getTotalUnits();
+                    outOfStock += summary.getOutOfStockCount();
+                    value = value.add(summary.getInventoryValue());
+                }
+                return new InventoryValuation(products, units, value, outOfStock);
+            });
+    }
+
+    @Override
+    public List<PriceBucket> getPriceHistogram(BigDecimal bucketWidth) {
+        if (bucketWidth == null || bucketWidth.signum() <= 0) {
+            throw new IllegalArgumentException("Bucket width must be greater than 0");
+        }
+        // 10, 10.0 and 1E+1 share a cache entry and all render as 10
+        BigDecimal stripped = bucketWidth.stripTrailingZeros();
+        BigDecimal width = stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+        return cached("prices:" + width.toPlainString(),
+            () -> scan(() -> new InventoryAccumulator.PriceHistogram(width)).result(),
+            () -> {
+                InventoryAccumulator.PriceHistogram histogram = new InventoryAccumulator.PriceHistogram(width);
+                productShards.scatter(shard -> productRepository.groupByPrice()).forEach(groups -> groups
+                    .forEach(group -> histogram.add(group.getPrice(), group.getProducts(), group.getUnits())));
+                return histogram.result();
+            });
+    }
+
+    @Override
+    public List<StockBucket> getStockLevels(int[] upperBounds) {
+        if (upperBounds.length == 0 || upperBounds.length > MAX_STOCK_BOUNDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_STOCK_BOUNDS + " stock bounds are required");
+        }
+        for (int i = 0; i < upperBounds.length; i++) {
+            if ((i > 0 && upperBounds[i] <= upperBounds[i - 1]) || upperBounds[i] == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Stock bounds must be strictly ascending");
+            }
+        }
+        int[] bounds = upperBounds.clone();
+        return cached("stock:" + Arrays.toString(bounds),
+            () -> scan(() -> new InventoryAccumulator.StockLevels(bounds)).result(),
+            () -> {
+                InventoryAccumulator.StockLevels levels = new InventoryAccumulator.StockLevels(bounds);
+                productShards.scatter(shard -> productRepository.groupByStockQuantity()).forEach(groups -> groups
+                    .forEach(group -> levels.add(group.getStockQuantity(), group.getProducts(), group.getInventoryValue())));
+                return levels.result();
+            });
+    }
+
+    /**
+     * Returns the cached result for {@code key} if it was computed at the current
+     * catalog version, otherwise computes it from the read model or the database.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, Supplier<T> fromReadModel, Supplier<T> fromDatabase) {
+        boolean useReadModel = productReadModel.isReady();
+        // Read the version before computing, so a concurrent change can only make the entry stale-looking
+        Object version = useReadModel ? productReadModel.version() : databaseVersion();
+        Cached entry = results.get(key);
+        if (entry != null && entry.version().equals(version)) {
+            hits.increment();
+            return (T) entry.value();
+        }
+        misses.increment();
+
+        T value = useReadModel
+            ? readModelPasses.record(fromReadModel)
+            : databasePasses.record(fromDatabase);
+        if (results.size() >= MAX_CACHED_RESULTS && !results.containsKey(key)) {
+            results.clear();
+        }
+        results.put(key, new Cached(version, value));
+        return value;
+    }
+
+    /**
+     * One pass over the read model: snapshot records in parallel on the common
+     * fork-join pool, then the (small) set of products changed since the snapshot.
+     */
+    private <A extends InventoryAccumulator<A>> A scan(Supplier<A> accumulator) {
+        ProductReadModel.View view = productReadModel.view();
+        CatalogSnapshot snapshot = view.snapshot();
+        A result = IntStream.range(0, snapshot.size())
+            .parallel()
+            .filter(view::isCurrent)
+            .collect(accumulator,
+                (acc, i) -> acc.add(snapshot.priceUnscaled(i), snapshot.priceScale(i), snapshot.stockQuantity(i)),
+                (left, right) -> left.merge(right));
+        for (Product product : view.changed().values()) {
+            result.add(product.getPrice(), product.getStockQuantity());
+        }
+        return result;
+    }
+
+    /**
+     * Changes to the catalog move at least one of: the product count (inserts and
+     * deletes, including rows loaded outside the service), the latest
+     * {@code updatedAt} (every write) or the latest outbox event (every service write)
+     * of some shard.
+     */
+    private List<DatabaseVersion> databaseVersion() {
+        return productShards.scatter(shard -> new DatabaseVersion(productRepository.count(),
+            productRepository.findLastUpdatedAt(), outboxRepository.findLastEventId()));
+    }
+
+    private record DatabaseVersion(long products, LocalDateTime lastUpdatedAt, Long lastEventId) {}
+
+    private record Cached(Object version, Object value) {}
+}
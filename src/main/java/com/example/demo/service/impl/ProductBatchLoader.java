@@ -0,0 +1,137 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.shard.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces concurrent by-id lookups into one {@code IN} query, DataLoader-style.
+ * <p>
+ * The first caller to arrive opens a batch and becomes its leader: it waits up to
+ * {@code product.batch.window} (or until {@code product.batch.max-size} ids have
+ * joined), then runs the query on its own thread and completes every waiting
+ * caller. No extra threads are involved, and callers asking for the same id share
+ * one result. Callers must not hold a database connection while waiting, or a
+ * burst of them could starve the leader of one.
+ * <p>
+ * With sharding, callers are grouped by their {@link ShardContext} shard, so
+ * the leader's query runs against the shard every id in its batch belongs to.
+ * <p>
+ * A window of zero turns batching off and every lookup goes straight to
+ * {@link ProductRepository#findById}.
+ */
+@Component
+public class ProductBatchLoader {
+
+    private final ProductRepository productRepository;
+    private final long windowNanos;
+    private final int maxSize;
+
+    private final Counter queries;
+    private final DistributionSummary batchSize;
+
+    private final Object lock = new Object();
+    // Open batch per shard (-1 when unsharded); guarded by lock
+    private final Map<Integer, Batch> open = new HashMap<>();
+
+    public ProductBatchLoader(ProductRepository productRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${product.batch.window:PT0.002S}") Duration window,
+                              @Value("${product.batch.max-size:100}") int maxSize) {
+        this.productRepository = productRepository;
+        this.windowNanos = window.toNanos();
+        this.maxSize = maxSize;
+
+        this.queries = Counter.builder("product.batch.queries")
+            .description("Database queries issued for coalesced by-id lookups")
+            .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("product.batch.size")
+            .description("Distinct product ids fetched per coalesced query")
+            .register(meterRegistry);
+    }
+
+    public Optional<Product> load(Long id) {
+        if (windowNanos == 0) {
+            queries.increment();
+            batchSize.record(1);
+            return productRepository.findById(id);
+        }
+
+        Integer shard = Objects.requireNonNullElse(ShardContext.current(), -1);
+        Batch batch;
+        boolean leader;
+        CompletableFuture<Optional<Product>> result;
+        synchronized (lock) {
+            batch = open.get(shard);
+            leader = batch == null;
+            if (leader) {
+                batch = new Batch();
+                open.put(shard, batch);
+            }
+            result = batch.add(id);
+            if (batch.lookups.size() >= maxSize) {
+                open.remove(shard);
+                batch.full.countDown();
+            }
+        }
+
+        if (leader) {
+            try {
+                batch.full.await(windowNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (lock) {
+                open.remove(shard, batch);
+            }
+            execute(batch);
+        }
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void execute(Batch batch) {
+        // The batch is closed, so lookups is no longer modified
+        queries.increment();
+        batchSize.record(batch.lookups.size());
+        try {
+            Map<Long, Product> found = productRepository.findAllById(batch.lookups.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+            batch.lookups.forEach((id, lookup) -> lookup.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException e) {
+            batch.lookups.values().forEach(lookup -> lookup.completeExceptionally(e));
+        }
+    }
+
+    private static final class Batch {
+        // Guarded by ProductBatchLoader.lock until the batch is closed
+        private final Map<Long, CompletableFuture<Optional<Product>>> lookups = new LinkedHashMap<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+
+        CompletableFuture<Optional<Product>> add(Long id) {
+            return lookups.computeIfAbsent(id, key -> new CompletableFuture<>());
+        }
+    }
+}
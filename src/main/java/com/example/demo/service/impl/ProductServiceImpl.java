@@ -1,41 +1,178 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.ProductExistenceFilter;
+import com.example.demo.cache.ProductJsonCache;
+import com.example.demo.exception.DuplicateResourceException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Product;
+import com.example.demo.model.ProductField;
+import com.example.demo.outbox.ProductOutbox;
 import com.example.demo.repository.ProductRepository;
 import com.example.demo.service.ProductService;
+import com.example.demo.snapshot.ProductReadModel;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
+    static final int MAX_LOOKUP_IDS = 500;
+    static final int MAX_BULK_PRODUCTS = 1000;
+
     private final ProductRepository productRepository;
+    private final ProductOutbox productOutbox;
+    private final ProductJsonCache productJsonCache;
+    private final ProductBatchLoader productBatchLoader;
+    private final CacheManager cacheManager;
+    private final ProductExistenceFilter productExistenceFilter;
+    private final ProductReadModel productReadModel;
 
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository,
+                              ProductOutbox productOutbox,
+                              ProductJsonCache productJsonCache,
+                              ProductBatchLoader productBatchLoader,
+                              CacheManager cacheManager,
+                              ProductExistenceFilter productExistenceFilter,
+                              ProductReadModel productReadModel) {
         this.productRepository = productRepository;
+        this.productOutbox = productOutbox;
+        this.productJsonCache = productJsonCache;
+        this.productBatchLoader = productBatchLoader;
+        this.cacheManager = cacheManager;
+        this.productExistenceFilter = productExistenceFilter;
+        this.productReadModel = productReadModel;
     }
 
     @Override
     @CacheEvict(value = "products", allEntries = true)
     public Product createProduct(Product product) {
-        if (productRepository.existsByName(product.getName())) {
-            throw new IllegalArgumentException("Product with name " + product.getName() + " already exists");
+        // The unique constraint on name is the duplicate check; no exists() round-trip.
+        Product savedProduct = saveUniqueName(product);
+        productOutbox.productCreated(savedProduct);
+        return savedProduct;
+    }
+
+    @Override
+    @CacheEvict(value = "products", allEntries = true)
+    public List<Product> createProducts(List<Product> products) {
+        if (products.size() > MAX_BULK_PRODUCTS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_PRODUCTS + " products can be created at once");
+        }
+        Set<String> names = new HashSet<>();
+        for (Product product : products) {
+            if (!names.add(product.getName())) {
+                throw new DuplicateResourceException("Product with name " + product.getName() + " appears twice");
+            }
         }
-        return productRepository.save(product);
+
+        // Sequence ids let Hibernate send the inserts, and the outbox rows below, as JDBC batches
+        List<Product> savedProducts;
+        try {
+            savedProducts = productRepository.saveAllAndFlush(products);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateName(e, "Product with one of the given names already exists");
+        }
+        for (Product savedProduct : savedProducts) {
+            productOutbox.productCreated(savedProduct);
+        }
+        return savedProducts;
     }
 
     @Override
-    @Cacheable(value = "products", key = "#id")
+    @Cacheable(value = "products", key = "#id", unless = "#result == null")
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        // Misses are not cached (arbitrary ids would flood the cache); the existence filter answers them
+        if (!productExistenceFilter.mightContainId(id)) {
+            return Optional.empty();
+        }
+        // Runs outside a transaction so waiting on a shared batch holds no connection
+        Optional<Product> product = productReadModel.isReady()
+            ? productReadModel.find(id)
+            : productBatchLoader.load(id);
+        if (product.isEmpty()) {
+            productExistenceFilter.recordFalsePositive();
+        }
+        return product;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Product> getProductsByIds(Collection<Long> ids) {
+        if (ids.size() > MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_LOOKUP_IDS + " ids can be looked up at once");
+        }
+
+        // Hits come from the same cache entries as getProductById; all misses share one IN query
+        Cache cache = cacheManager.getCache("products");
+        Collection<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, Product> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Cache.ValueWrapper cached = cache != null ? cache.get(id) : null;
+            if (cached == null) {
+                if (productExistenceFilter.mightContainId(id)) {
+                    misses.add(id);
+                }
+            } else if (cached.get() instanceof Product product) {
+                found.put(id, product);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<Long, Product> loaded = loadAll(misses);
+            for (Long id : misses) {
+                Product product = loaded.get(id);
+                if (product == null) {
+                    productExistenceFilter.recordFalsePositive();
+                    continue;
+                }
+                if (cache != null) {
+                    cache.put(id, product);
+                }
+                found.put(id, product);
+            }
+        }
+
+        return distinctIds.stream()
+            .map(found::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    private Map<Long, Product> loadAll(List<Long> ids) {
+        if (productReadModel.isReady()) {
+            Map<Long, Product> loaded = new HashMap<>();
+            ids.forEach(id -> productReadModel.find(id).ifPresent(product -> loaded.put(id, product)));
+            return loaded;
+        }
+        return productRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
     }
 
     @Override
@@ -63,39 +200,99 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @CacheEvict(value = "products", allEntries = true)
-    public Product updateProduct(Long id, Product product) {
-        Product existingProduct = productRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+    @Cacheable(value = "products", key = "'fields:' + #fields + ':' + #maxPrice + ':' + #lowStockThreshold")
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProductFields(Set<ProductField> fields, BigDecimal maxPrice,
+                                                      Integer lowStockThreshold) {
+        return productRepository.findFields(fields, maxPrice, lowStockThreshold);
+    }
 
-        // Update only non-null fields
-        if (product.getName() != null) {
-            existingProduct.setName(product.getName());
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Map<String, Object>> getProductFieldsById(Long id, Set<ProductField> fields) {
+        if (!productExistenceFilter.mightContainId(id)) {
+            return Optional.empty();
         }
-        if (product.getDescription() != null) {
-            existingProduct.setDescription(product.getDescription());
+        // A fully cached product is projected in memory; otherwise read just the requested columns
+        Cache cache = cacheManager.getCache("products");
+        Cache.ValueWrapper cached = cache != null ? cache.get(id) : null;
+        if (cached != null) {
+            return cached.get() instanceof Product product
+                ? Optional.of(ProductField.project(product, fields))
+                : Optional.empty();
         }
-        if (product.getPrice() != null) {
-            existingProduct.setPrice(product.getPrice());
+        return productRepository.findFieldsById(id, fields);
+    }
+
+    @Override
+    @CacheEvict(value = "products", allEntries = true)
+    public Product updateProduct(Long id, Product product) {
+        // Update only non-null fields, in a single statement that also returns the previous row
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Optional<Product> previous;
+        try {
+            previous = productRepository.updatePartially(id, product, updatedAt);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateName(e, "Product with name " + product.getName() + " already exists");
         }
-        if (product.getStockQuantity() != null) {
-            existingProduct.setStockQuantity(product.getStockQuantity());
+        if (previous.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
         }
+        productJsonCache.evict(id);
 
-        return productRepository.save(existingProduct);
+        Product updatedProduct = applyChanges(previous.get(), product, updatedAt);
+        productOutbox.productUpdated(previous.get(), updatedProduct);
+        return updatedProduct;
     }
 
     @Override
     @CacheEvict(value = "products", allEntries = true)
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
+        if (productRepository.deleteProductById(id) == 0) {
             throw new ResourceNotFoundException("Product not found with id: " + id);
         }
-        productRepository.deleteById(id);
+        productJsonCache.evict(id);
+        productOutbox.productDeleted(id);
     }
 
     @Override
     public boolean existsByName(String name) {
+        if (!productExistenceFilter.mightContainName(name)) {
+            return false;
+        }
         return productRepository.existsByName(name);
     }
-} 
\ No newline at end of file
+
+    private Product saveUniqueName(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateName(e, "Product with name " + product.getName() + " already exists");
+        }
+    }
+
+    /**
+     * The row as {@link ProductRepository#updatePartially} leaves it, built without reading it back.
+     * Prices are rounded the way the {@code NUMERIC(10, 2)} column stores them.
+     */
+    static Product applyChanges(Product previous, Product changes, LocalDateTime updatedAt) {
+        return Product.builder()
+            .id(previous.getId())
+            .name(changes.getName() != null ? changes.getName() : previous.getName())
+            .description(changes.getDescription() != null ? changes.getDescription() : previous.getDescription())
+            .price(changes.getPrice() != null ? changes.getPrice().setScale(2, RoundingMode.HALF_UP) : previous.getPrice())
+            .stockQuantity(changes.getStockQuantity() != null ? changes.getStockQuantity() : previous.getStockQuantity())
+            .createdAt(previous.getCreatedAt())
+            .updatedAt(updatedAt)
+            .build();
+    }
+
+    private static RuntimeException translateDuplicateName(DataIntegrityViolationException e, String message) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Product.NAME_CONSTRAINT)) {
+            return new DuplicateResourceException(message);
+        }
+        return e;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exception.DuplicateResourceException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+import com.example.demo.outbox.ReactiveProductOutbox;
+import com.example.demo.repository.ReactiveProductRepository;
+import com.example.demo.service.ReactiveProductService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+
+@Service
+@Profile("reactive")
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+
+    private final ReactiveProductRepository productRepository;
+    private final ReactiveProductOutbox productOutbox;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveProductServiceImpl(ReactiveProductRepository productRepository,
+                                      ReactiveProductOutbox productOutbox,
+                                      ReactiveTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.productOutbox = productOutbox;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    @Override
+    public Mono<Product> createProduct(Product product) {
+        // The unique constraint on name is the duplicate check; no exists() round-trip.
+        return productRepository.insert(product)
+            .onErrorMap(DataIntegrityViolationException.class, e -> duplicateName(e, product.getName()))
+            .flatMap(productOutbox::productCreated)
+            .as(transactionalOperator::transactional)
+            .doOnNext(productOutbox::publish)
+            .map(ProductChangedEvent::product);
+    }
+
+    @Override
+    public Mono<Product> getProductById(Long id) {
+        return productRepository.findById(id);
+    }
+
+    @Override
+    public Flux<Product> getProductsByIds(Collection<Long> ids) {
+        if (ids.size() > ProductServiceImpl.MAX_LOOKUP_IDS) {
+            return Flux.error(new IllegalArgumentException(
+                "At most " + ProductServiceImpl.MAX_LOOKUP_IDS + " ids can be looked up at once"));
+        }
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        Collection<Long> distinctIds = new LinkedHashSet<>(ids);
+        return productRepository.findAllById(distinctIds)
+            .collectMap(Product::getId)
+            .flatMapIterable(found -> distinctIds.stream().filter(found::containsKey).map(found::get).toList());
+    }
+
+    @Override
+    public Flux<Product> getAllProducts() {
+        return productRepository.findAll();
+    }
+
+    @Override
+    public Flux<Product> getProductsByPriceLessThanEqual(BigDecimal price) {
+        return productRepository.findByPriceLessThanEqual(price);
+    }
+
+    @Override
+    public Flux<Product> getLowStockProducts(Integer threshold) {
+        return productRepository.findLowStockProducts(threshold);
+    }
+
+    @Override
+    public Mono<Product> updateProduct(Long id, Product product) {
+        // Update only non-null fields, in a single statement that also returns the previous row
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return productRepository.updatePartially(id, product, updatedAt)
+            .onErrorMap(DataIntegrityViolationException.class, e -> duplicateName(e, product.getName()))
+            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product not found with id: " + id)))
+            .flatMap(previous -> productOutbox.productUpdated(previous,
+                ProductServiceImpl.applyChanges(previous, product, updatedAt)))
+            .as(transactionalOperator::transactional)
+            .doOnNext(productOutbox::publish)
+            .map(ProductChangedEvent::product);
+    }
+
+    @Override
+    public Mono<Void> deleteProduct(Long id) {
+        return productRepository.deleteById(id)
+            .flatMap(deleted -> deleted == 0
+                ? Mono.<ProductChangedEvent>error(new ResourceNotFoundException("Product not found with id: " + id))
+                : productOutbox.productDeleted(id))
+            .as(transactionalOperator::transactional)
+            .doOnNext(productOutbox::publish)
+            .then();
+    }
+
+    private static Throwable duplicateName(DataIntegrityViolationException e, String name) {
+        return e.getMessage() != null && e.getMessage().toLowerCase(Locale.ROOT).contains(Product.NAME_CONSTRAINT)
+            ? new DuplicateResourceException("Product with name " + name + " already exists")
+            : e;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exception.DuplicateResourceException;
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductField;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.ProductService;
+import com.example.demo.shard.ProductShards;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Routes {@link ProductService} calls across shards. By-id operations and creates
+ * run {@link ProductServiceImpl} against the one shard that owns the row; list and
+ * search queries run on every shard in parallel and are merged in id order.
+ * <p>
+ * Deliberately not transactional: the shard has to be chosen before a
+ * transaction binds a connection, so each routed call starts its own.
+ */
+@Service
+@Primary
+@Profile("sharded")
+public class ShardedProductService implements ProductService {
+
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+    private static final Comparator<Map<String, Object>> FIELDS_BY_ID =
+        Comparator.comparing(fields -> (Long) fields.get("id"));
+
+    private final ProductServiceImpl delegate;
+    private final ProductRepository productRepository;
+    private final ProductShards productShards;
+
+    public ShardedProductService(ProductServiceImpl delegate,
+                                 ProductRepository productRepository,
+                                 ProductShards productShards) {
+        this.delegate = delegate;
+        this.productRepository = productRepository;
+        this.productShards = productShards;
+    }
+
+    @Override
+    public Product createProduct(Product product) {
+        rejectTakenNames(List.of(product.getName()));
+        return productShards.on(productShards.shardForName(product.getName()), () -> delegate.createProduct(product));
+    }
+
+    @Override
+    public List<Product> createProducts(List<Product> products) {
+        if (products.size() > ProductServiceImpl.MAX_BULK_PRODUCTS) {
+            throw new IllegalArgumentException("At most " + ProductServiceImpl.MAX_BULK_PRODUCTS
+                + " products can be created at once");
+        }
+        Set<String> names = new HashSet<>();
+        for (Product product : products) {
+            if (!names.add(product.getName())) {
+                throw new DuplicateResourceException("Product with name " + product.getName() + " appears twice");
+            }
+        }
+        // Rejected up front so a duplicate fails the whole batch. Each shard still commits on its
+        // own, so only a concurrent create of the same name can leave other shards' products created.
+        rejectTakenNames(names);
+        Map<Integer, List<Product>> productsByShard = new HashMap<>();
+        for (Product product : products) {
+            productsByShard.computeIfAbsent(productShards.shardForName(product.getName()), shard -> new ArrayList<>())
+                .add(product);
+        }
+        productShards.scatter(shard -> productsByShard.containsKey(shard)
+            ? delegate.createProducts(productsByShard.get(shard))
+            : List.<Product>of());
+        // Persisting assigns ids to the given instances, so they are the created products
+        return products;
+    }
+
+    @Override
+    public Optional<Product> getProductById(Long id) {
+        return productShards.on(productShards.shardOf(id), () -> delegate.getProductById(id));
+    }
+
+    @Override
+    public List<Product> getProductsByIds(Collection<Long> ids) {
+        if (ids.size() > ProductServiceImpl.MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException("At most " + ProductServiceImpl.MAX_LOOKUP_IDS
+                + " ids can be looked up at once");
+        }
+        Map<Integer, List<Long>> idsByShard = new HashMap<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            idsByShard.computeIfAbsent(productShards.shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        Map<Long, Product> found = productShards.scatter(shard -> idsByShard.containsKey(shard)
+                ? delegate.getProductsByIds(idsByShard.get(shard))
+                : List.<Product>of())
+            .stream()
+            .flatMap(List::stream)
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return new LinkedHashSet<>(ids).stream()
+            .map(found::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    @Override
+    @Cacheable(value = "products")
+    public List<Product> getAllProducts() {
+        return gather(() -> productRepository.findAll());
+    }
+
+    @Override
+    @Cacheable(value = "products", key = "'name:' + #name")
+    public Optional<Product> getProductByName(String name) {
+        // Names hash to the shard they were created on; renamed products may live elsewhere
+        int home = productShards.shardForName(name);
+        Optional<Product> product = productShards.on(home, () -> productRepository.findByName(name));
+        if (product.isPresent()) {
+            return product;
+        }
+        return productShards.scatter(shard -> shard == home ? Optional.<Product>empty() : productRepository.findByName(name))
+            .stream()
+            .flatMap(Optional::stream)
+            .findFirst();
+    }
+
+    @Override
+    @Cacheable(value = "products", key = "'price:' + #price")
+    public List<Product> getProductsByPriceLessThanEqual(BigDecimal price) {
+        return gather(() -> productRepository.findByPriceLessThanEqual(price));
+    }
+
+    @Override
+    @Cacheable(value = "products", key = "'lowStock:' + #threshold")
+    public List<Product> getLowStockProducts(Integer threshold) {
+        return gather(() -> productRepository.findLowStockProducts(threshold));
+    }
+
+    @Override
+    @Cacheable(value = "products", key = "'fields:' + #fields + ':' + #maxPrice + ':' + #lowStockThreshold")
+    public List<Map<String, Object>> getProductFields(Set<ProductField> fields, BigDecimal maxPrice,
+                                                      Integer lowStockThreshold) {
+        // Each shard's result is already in id order
+        return ProductShards.mergeSorted(
+            productShards.scatter(shard -> productRepository.findFields(fields, maxPrice, lowStockThreshold)),
+            FIELDS_BY_ID);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getProductFieldsById(Long id, Set<ProductField> fields) {
+        return productShards.on(productShards.shardOf(id), () -> delegate.getProductFieldsById(id, fields));
+    }
+
+    @Override
+    public Product updateProduct(Long id, Product product) {
+        int owner = productShards.shardOf(id);
+        if (product.getName() != null) {
+            // The owning shard's constraint covers its own rows; check the others first (not atomic with the update)
+            boolean takenElsewhere = productShards.scatter(shard -> shard != owner
+                    && productRepository.findByName(product.getName())
+                        .filter(existing -> !existing.getId().equals(id))
+                        .isPresent())
+                .contains(true);
+            if (takenElsewhere) {
+                throw new DuplicateResourceException("Product with name " + product.getName() + " already exists");
+            }
+        }
+        return productShards.on(owner, () -> delegate.updateProduct(id, product));
+    }
+
+    @Override
+    public void deleteProduct(Long id) {
+        productShards.on(productShards.shardOf(id), () -> {
+            delegate.deleteProduct(id);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean existsByName(String name) {
+        return productShards.on(productShards.shardForName(name), () -> delegate.existsByName(name))
+            || productShards.scatter(shard -> delegate.existsByName(name)).contains(true);
+    }
+
+    /**
+     * Rejects names already used on any shard. New names hash to a home shard, but a
+     * renamed product stays on the shard that owns its id, so a shard's unique
+     * constraint alone misses it. Checked before writing, so not atomic with the insert.
+     */
+    private void rejectTakenNames(Collection<String> names) {
+        productShards.scatter(shard -> productRepository.findExistingNames(names))
+            .stream()
+            .flatMap(List::stream)
+            .findFirst()
+            .ifPresent(name -> {
+                throw new DuplicateResourceException("Product with name " + name + " already exists");
+            });
+    }
+
+    private List<Product> gather(Supplier<List<Product>> query) {
+        return ProductShards.mergeSorted(productShards.scatter(shard -> {
+            List<Product> products = new ArrayList<>(query.get());
+            products.sort(BY_ID);
+            return products;
+        }), BY_ID);
+    }
+}
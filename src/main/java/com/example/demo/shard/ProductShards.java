@@ -0,0 +1,142 @@
+package com.example.demo.shard;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * How products are partitioned across {@code sharding.shards} databases. Each
+ * shard's id sequence only yields ids congruent to the shard index modulo the
+ * shard count, so the owning shard of a product follows from its id alone.
+ * New products go to the shard their name hashes to, which keeps the unique
+ * name constraint effective for creates.
+ * <p>
+ * With a single shard (the default) nothing is routed and all work runs on the
+ * calling thread, so components can use this unconditionally.
+ */
+@Component
+public class ProductShards implements DisposableBean {
+
+    private final int count;
+    private final ExecutorService executor;
+
+    public ProductShards(@Value("${sharding.shards:1}") int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("sharding.shards must be at least 1");
+        }
+        this.count = count;
+        if (count == 1) {
+            this.executor = null;
+        } else {
+            CustomizableThreadFactory threads = new CustomizableThreadFactory("shard-query-");
+            threads.setDaemon(true);
+            this.executor = Executors.newCachedThreadPool(threads);
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public int shardOf(long id) {
+        return (int) Math.floorMod(id, (long) count);
+    }
+
+    public int shardForName(String name) {
+        return Math.floorMod(name.hashCode(), count);
+    }
+
+    /**
+     * Runs {@code work} against one shard on the calling thread.
+     */
+    public <T> T on(int shard, Supplier<T> work) {
+        return isSharded() ? ShardContext.call(shard, work) : work.get();
+    }
+
+    /**
+     * Runs {@code work} against every shard in parallel and returns the results
+     * in shard order. The first failure is rethrown once all shards finish.
+     */
+    public <T> List<T> scatter(IntFunction<T> work) {
+        if (!isSharded()) {
+            return List.of(work.apply(0));
+        }
+        List<CompletableFuture<T>> results = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            results.add(CompletableFuture.supplyAsync(() -> ShardContext.call(target, () -> work.apply(target)), executor));
+        }
+        try {
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Runs {@code work} against each shard in turn on the calling thread.
+     */
+    public void forEach(IntConsumer work) {
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            on(shard, () -> {
+                work.accept(target);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Merges per-shard results that are each sorted by {@code order} into one sorted list.
+     */
+    public static <T> List<T> mergeSorted(List<List<T>> sortedParts, Comparator<? super T> order) {
+        if (sortedParts.size() == 1) {
+            return sortedParts.get(0);
+        }
+        // Heap of {part, position} cursors, ordered by the element each points at
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(Math.max(1, sortedParts.size()),
+            (a, b) -> order.compare(sortedParts.get(a[0]).get(a[1]), sortedParts.get(b[0]).get(b[1])));
+        int total = 0;
+        for (int part = 0; part < sortedParts.size(); part++) {
+            total += sortedParts.get(part).size();
+            if (!sortedParts.get(part).isEmpty()) {
+                cursors.add(new int[] {part, 0});
+            }
+        }
+        List<T> merged = new ArrayList<>(total);
+        while (!cursors.isEmpty()) {
+            int[] cursor = cursors.poll();
+            List<T> part = sortedParts.get(cursor[0]);
+            merged.add(part.get(cursor[1]));
+            if (++cursor[1] < part.size()) {
+                cursors.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
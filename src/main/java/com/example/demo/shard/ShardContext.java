@@ -0,0 +1,39 @@
+package com.example.demo.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's database work is routed to. It must be set
+ * before a transaction starts, since the connection is bound when it begins.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * The shard set for this thread, or {@code null} if none is.
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs {@code work} routed to {@code shard}, restoring the previous shard afterwards.
+     */
+    public static <T> T call(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.demo.snapshot;
+
+import com.example.demo.model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only, memory-mapped view of a product catalog snapshot file.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header   64 bytes   magic, format version, record count, high-water mark,
+ *                     taken-at, heap offset/length, CRC32 of records and of heap
+ * records  56 bytes   id, price unscaled, price scale, stock, created/updated
+ *          each       (epoch micros, UTC), name and description heap offset/length
+ * heap                UTF-8 strings referenced by the records
+ * </pre>
+ * Records are sorted by id, so lookups are a binary search over the mapping and
+ * only touch the pages they need. Absolute reads keep the view safe to share
+ * between threads.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x50435331; // "PCS1"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 56;
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    // Record field offsets
+    private static final int ID = 0;
+    private static final int PRICE_UNSCALED = 8;
+    private static final int PRICE_SCALE = 16;
+    private static final int STOCK = 20;
+    private static final int CREATED_AT = 24;
+    private static final int UPDATED_AT = 32;
+    private static final int NAME = 40;
+    private static final int DESCRIPTION = 48;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final LocalDateTime highWaterMark;
+    private final LocalDateTime takenAt;
+    private final int heapOffset;
+
+    private CatalogSnapshot(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("Not a catalog snapshot: " + file);
+        }
+        this.size = buffer.getInt(8);
+        this.highWaterMark = fromMicros(buffer.getLong(16));
+        this.takenAt = fromMicros(buffer.getLong(24));
+        long heapStart = buffer.getLong(32);
+        long heapLength = buffer.getLong(40);
+        if (heapStart != HEADER_SIZE + (long) size * RECORD_SIZE || heapStart + heapLength != buffer.capacity()) {
+            throw new IllegalStateException("Truncated catalog snapshot: " + file);
+        }
+        this.heapOffset = (int) heapStart;
+        if (crc(HEADER_SIZE, heapOffset) != buffer.getInt(48) || crc(heapOffset, buffer.capacity()) != buffer.getInt(52)) {
+            throw new IllegalStateException("Corrupt catalog snapshot: " + file);
+        }
+    }
+
+    /**
+     * Maps and validates a snapshot file.
+     *
+     * @throws IllegalStateException if the file is not a complete, intact snapshot
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new CatalogSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes {@code products}, which must be in ascending id order, to {@code file}.
+     * The file is written under a temporary name, forced to disk and then moved
+     * into place, so readers never see a partial snapshot.
+     */
+    public static void write(Path file, Iterator<Product> products, LocalDateTime takenAt) throws IOException {
+        Path records = file.resolveSibling(file.getFileName() + ".tmp");
+        Path heap = file.resolveSibling(file.getFileName() + ".heap.tmp");
+        try {
+            int count = 0;
+            long highWaterMark = NO_TIMESTAMP;
+            long heapLength = 0;
+            long previousId = Long.MIN_VALUE;
+            CRC32 recordsCrc = new CRC32();
+            CRC32 heapCrc = new CRC32();
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+
+            try (OutputStream recordOut = new BufferedOutputStream(Files.newOutputStream(records), 1 << 16);
+                 OutputStream heapOut = new BufferedOutputStream(Files.newOutputStream(heap), 1 << 16)) {
+                recordOut.write(new byte[HEADER_SIZE]);
+                while (products.hasNext()) {
+                    Product product = products.next();
+                    if (product.getId() <= previousId) {
+                        throw new IllegalArgumentException("Products must be in ascending id order");
+                    }
+                    previousId = product.getId();
+
+                    byte[] name = utf8(product.getName());
+                    byte[] description = utf8(product.getDescription());
+                    BigDecimal price = product.getPrice();
+                    record.clear();
+                    record.putLong(ID, product.getId());
+                    record.putLong(PRICE_UNSCALED, price == null ? 0 : price.unscaledValue().longValueExact());
+                    record.putInt(PRICE_SCALE, price == null ? -1 : price.scale());
+                    record.putInt(STOCK, product.getStockQuantity() == null ? 0 : product.getStockQuantity());
+                    record.putLong(CREATED_AT, toMicros(product.getCreatedAt()));
+                    record.putLong(UPDATED_AT, toMicros(product.getUpdatedAt()));
+                    record.putInt(NAME, name == null ? 0 : (int) heapLength);
+                    record.putInt(NAME + 4, name == null ? -1 : name.length);
+                    heapLength += name == null ? 0 : name.length;
+                    record.putInt(DESCRIPTION, description == null ? 0 : (int) heapLength);
+                    record.putInt(DESCRIPTION + 4, description == null ? -1 : description.length);
+                    heapLength += description == null ? 0 : description.length;
+                    if (heapLength > Integer.MAX_VALUE - HEADER_SIZE - (long) (count + 1) * RECORD_SIZE) {
+                        throw new IllegalStateException("Catalog too large for a single snapshot file");
+                    }
+
+                    recordOut.write(record.array());
+                    recordsCrc.update(record.array());
+                    for (byte[] text : new byte[][] {name, description}) {
+                        if (text != null) {
+                            heapOut.write(text);
+                            heapCrc.update(text);
+                        }
+                    }
+                    highWaterMark = Math.max(highWaterMark, toMicros(product.getUpdatedAt()));
+                    count++;
+                }
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(0, MAGIC);
+            header.putInt(4, FORMAT_VERSION);
+            header.putInt(8, count);
+            header.putLong(16, highWaterMark);
+            header.putLong(24, toMicros(takenAt));
+            header.putLong(32, HEADER_SIZE + (long) count * RECORD_SIZE);
+            header.putLong(40, heapLength);
+            header.putInt(48, (int) recordsCrc.getValue());
+            header.putInt(52, (int) heapCrc.getValue());
+
+            try (FileChannel out = FileChannel.open(records, StandardOpenOption.WRITE);
+                 FileChannel heapIn = FileChannel.open(heap, StandardOpenOption.READ)) {
+                out.position(out.size());
+                long transferred = 0;
+                while (transferred < heapLength) {
+                    transferred += heapIn.transferTo(transferred, heapLength - transferred, out);
+                }
+                out.write(header, 0);
+                out.force(true);
+            }
+            Files.move(records, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(heap);
+            Files.deleteIfExists(records);
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Latest {@code updatedAt} of any product in the snapshot, or {@code null} if empty.
+     */
+    public LocalDateTime highWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * When the catalog was read to produce this snapshot.
+     */
+    public LocalDateTime takenAt() {
+        return takenAt;
+    }
+
+    public Optional<Product> find(long id) {
+        int index = indexOf(id);
+        return index < 0 ? Optional.empty() : Optional.of(product(index));
+    }
+
+    /**
+     * Position of the record with the given id, or -1 if the snapshot has none.
+     */
+    public int indexOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = id(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public long id(int index) {
+        return buffer.getLong(record(index) + ID);
+    }
+
+    public LocalDateTime updatedAt(int index) {
+        return fromMicros(buffer.getLong(record(index) + UPDATED_AT));
+    }
+
+    /**
+     * Price of the record at {@code index}, without decoding its strings.
+     */
+    public BigDecimal price(int index) {
+        int offset = record(index);
+        int scale = buffer.getInt(offset + PRICE_SCALE);
+        return scale < 0 ? null : BigDecimal.valueOf(buffer.getLong(offset + PRICE_UNSCALED), scale);
+    }
+
+    /**
+     * Unscaled price of the record at {@code index}; with {@link #priceScale(int)}
+     * this lets full scans total prices without allocating a {@code BigDecimal} each.
+     */
+    public long priceUnscaled(int index) {
+        return buffer.getLong(record(index) + PRICE_UNSCALED);
+    }
+
+    /**
+     * Scale of the price of the record at {@code index}, or {@code -1} if it has no price.
+     */
+    public int priceScale(int index) {
+        return buffer.getInt(record(index) + PRICE_SCALE);
+    }
+
+    /**
+     * Stock quantity of the record at {@code index}, without decoding its strings.
+     */
+    public int stockQuantity(int index) {
+        return buffer.getInt(record(index) + STOCK);
+    }
+
+    public Product product(int index) {
+        int offset = record(index);
+        return Product.builder()
+            .id(buffer.getLong(offset + ID))
+            .name(string(offset + NAME))
+            .description(string(offset + DESCRIPTION))
+            .price(price(index))
+            .stockQuantity(buffer.getInt(offset + STOCK))
+            .createdAt(fromMicros(buffer.getLong(offset + CREATED_AT)))
+            .updatedAt(fromMicros(buffer.getLong(offset + UPDATED_AT)))
+            .build();
+    }
+
+    private int record(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private String string(int fieldOffset) {
+        int length = buffer.getInt(fieldOffset + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(heapOffset + buffer.getInt(fieldOffset), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int crc(int from, int to) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(from, to - from));
+        return (int) crc.getValue();
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIMESTAMP;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+            (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.demo.snapshot;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+import com.example.demo.model.ProductEventType;
+import com.example.demo.repository.ProductOutboxRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.shard.ProductShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory view of the catalog that survives restarts: a memory-mapped
+ * {@link CatalogSnapshot} plus an overlay of products changed or deleted since
+ * the snapshot was taken.
+ * <p>
+ * On boot the newest intact snapshot in {@code catalog.snapshot.directory} is
+ * mapped and only rows with a later {@code updatedAt} (and deletions recorded in
+ * the outbox) are read from the database. Without a usable snapshot, or one older
+ * than the outbox retention, a fresh one is written from a full scan. Committed
+ * changes from this instance are applied as they happen; changes from other
+ * instances arrive through the periodic catch-up. A new snapshot is written every
+ * {@code catalog.snapshot.interval}, after which overlay entries it covers are dropped.
+ */
+@Component
+public class ProductReadModel implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductReadModel.class);
+    private static final String PREFIX = "catalog-";
+    private static final String SUFFIX = ".snapshot";
+
+    private final ProductRepository productRepository;
+    private final ProductOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration slack;
+    private final Duration retention;
+
+    private final Map<Long, Product> overlay = new ConcurrentHashMap<>();
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+    private final Object lock = new Object();
+    private volatile CatalogSnapshot snapshot;
+    private volatile LocalDateTime caughtUpTo;
+    private volatile boolean ready;
+
+    private final Counter catchUpRows;
+    private final Timer snapshotWrites;
+
+    public ProductReadModel(ProductRepository productRepository,
+                            ProductOutboxRepository outboxRepository,
+                            ProductShards productShards,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${catalog.snapshot.enabled:false}") boolean enabled,
+                            @Value("${catalog.snapshot.directory:${app.data-dir:./data}/snapshots}") String directory,
+                            @Value("${catalog.snapshot.slack:PT1M}") Duration slack,
+                            @Value("${outbox.retention:P7D}") Duration retention) {
+        if (enabled && productShards.isSharded()) {
+            // The snapshot is a single id-ordered scan of one database
+            throw new IllegalStateException("catalog.snapshot.enabled is not supported with sharding");
+        }
+        this.productRepository = productRepository;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.slack = slack;
+        this.retention = retention;
+
+        this.catchUpRows = Counter.builder("catalog.snapshot.catchup.rows")
+            .description("Changed or deleted products read from the database after the snapshot")
+            .register(meterRegistry);
+        this.snapshotWrites = Timer.builder("catalog.snapshot.write")
+            .description("Time to write and map a new catalog snapshot")
+            .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.records", this, model -> model.snapshot == null ? 0 : model.snapshot.size())
+            .description("Products in the mapped snapshot")
+            .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.overlay", this, model -> model.overlay.size() + model.deleted.size())
+            .description("Products changed or deleted since the mapped snapshot")
+            .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.age", this, ProductReadModel::snapshotAgeSeconds)
+            .description("Time since the mapped snapshot was taken")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        CatalogSnapshot latest = openLatest();
+        synchronized (lock) {
+            if (latest != null && latest.takenAt().isAfter(LocalDateTime.now().minus(retention).plus(slack))) {
+                snapshot = latest;
+                LocalDateTime since = latest.takenAt().minus(slack);
+                catchUp(since, since);
+                log.info("Mapped catalog snapshot {} ({} products) and caught up in {} ms",
+                    latest.file().getFileName(), latest.size(), (System.nanoTime() - start) / 1_000_000);
+            } else {
+                if (latest != null) {
+                    log.info("Catalog snapshot {} is older than the outbox retention; rebuilding",
+                        latest.file().getFileName());
+                }
+                writeSnapshot();
+                log.info("Wrote initial catalog snapshot ({} products) in {} ms",
+                    snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+            }
+            ready = true;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<Product> find(Long id) {
+        if (deleted.contains(id)) {
+            return Optional.empty();
+        }
+        Product changed = overlay.get(id);
+        if (changed != null) {
+            return Optional.of(changed);
+        }
+        CatalogSnapshot current = snapshot;
+        return current == null ? Optional.empty() : current.find(id);
+    }
+
+    /**
+     * Incremented whenever the visible catalog changes, so results derived from
+     * the read model can be cached until the next change.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * The mapped snapshot and the changes on top of it, for callers that scan the
+     * whole catalog. Read {@link #version()} first: a change landing while the view
+     * is taken may or may not be included, but always bumps the version.
+     */
+    public View view() {
+        return new View(snapshot, Map.copyOf(overlay), Set.copyOf(deleted));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.type() == ProductEventType.DELETED) {
+            markDeleted(event.productId());
+        } else {
+            upsert(event.product());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.snapshot.refresh-interval:PT5S}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        synchronized (lock) {
+            // No slack for changed rows: this instance's writes arrive as events, and the next
+            // snapshot's full scan picks up other instances' writes that committed behind caughtUpTo.
+            // Deletions keep it, since a missed one would otherwise only surface on restart.
+            catchUp(caughtUpTo, caughtUpTo.minus(slack));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.snapshot.interval:PT5M}",
+        initialDelayString = "${catalog.snapshot.interval:PT5M}")
+    public void rollSnapshot() {
+        if (!ready) {
+            return;
+        }
+        synchronized (lock) {
+            try {
+                writeSnapshot();
+            } catch (RuntimeException | IOException e) {
+                // Keep serving from the current snapshot and overlay
+                log.warn("Writing the catalog snapshot failed", e);
+            }
+        }
+    }
+
+    private void catchUp(LocalDateTime since, LocalDateTime deletedSince) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Product> changed = productRepository.findByUpdatedAtGreaterThan(since);
+        List<Long> removed = outboxRepository.findProductIdsByEventTypeSince(ProductEventType.DELETED, deletedSince);
+        changed.forEach(this::upsert);
+        removed.forEach(this::markDeleted);
+        catchUpRows.increment(changed.size() + removed.size());
+        caughtUpTo = startedAt;
+    }
+
+    private void writeSnapshot() throws IOException {
+        long start = System.nanoTime();
+        LocalDateTime takenAt = LocalDateTime.now();
+        Path file = directory.resolve(PREFIX + takenAt.toInstant(ZoneOffset.UTC).toEpochMilli() + SUFFIX);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAllOrderById()) {
+                CatalogSnapshot.write(file, products.iterator(), takenAt);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        CatalogSnapshot written = CatalogSnapshot.open(file);
+        CatalogSnapshot previous = snapshot;
+        snapshot = written;
+        // The scan may include writes catch-up hasn't seen yet (or made outside the service)
+        version.incrementAndGet();
+        // Drop overlay entries the new snapshot already has (or has something newer than), and
+        // those it lacks although they predate the scan: their rows were deleted, even if the
+        // deletion committed behind catch-up and never reached the deleted set. Entries within
+        // the slack are kept until the next snapshot, as their insert may still have been in flight.
+        LocalDateTime settled = takenAt.minus(slack);
+        overlay.forEach((id, product) -> {
+            int index = written.indexOf(id);
+            boolean covered = index >= 0
+                ? !isNewer(product, written.updatedAt(index))
+                : !isNewer(product, settled);
+            if (covered) {
+                overlay.remove(id, product);
+            }
+        });
+        deleted.removeIf(id -> written.indexOf(id) < 0);
+        if (caughtUpTo == null) {
+            caughtUpTo = takenAt;
+        }
+        snapshotWrites.record(Duration.ofNanos(System.nanoTime() - start));
+
+        if (previous != null) {
+            deleteSnapshotsBefore(file);
+        }
+    }
+
+    private void upsert(Product product) {
+        if (product == null || deleted.contains(product.getId())) {
+            // Ids are never reused, so a deletion is final
+            return;
+        }
+        boolean[] changed = {false};
+        overlay.compute(product.getId(), (id, current) -> {
+            if (current != null && !isNewer(product, current.getUpdatedAt())) {
+                return current;
+            }
+            changed[0] = true;
+            return product;
+        });
+        if (changed[0]) {
+            version.incrementAndGet();
+        }
+    }
+
+    private void markDeleted(Long id) {
+        boolean added = deleted.add(id);
+        if (overlay.remove(id) != null || added) {
+            version.incrementAndGet();
+        }
+    }
+
+    private CatalogSnapshot openLatest() throws IOException {
+        for (Path file : snapshotFiles()) {
+            try {
+                return CatalogSnapshot.open(file);
+            } catch (IllegalStateException | IOException e) {
+                log.warn("Skipping unreadable catalog snapshot {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void deleteSnapshotsBefore(Path current) throws IOException {
+        for (Path file : snapshotFiles()) {
+            if (!file.equals(current) && timestamp(file) < timestamp(current)) {
+                // Existing mappings of the old file stay valid after it is unlinked
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.debug("Could not delete old catalog snapshot {}", file, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Snapshot files in the directory, newest first.
+     */
+    private List<Path> snapshotFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            entries.forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(ProductReadModel::timestamp).reversed());
+        return files;
+    }
+
+    private static long timestamp(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private double snapshotAgeSeconds() {
+        CatalogSnapshot current = snapshot;
+        return current == null ? 0 : Duration.between(current.takenAt(), LocalDateTime.now()).toSeconds();
+    }
+
+    private static boolean isNewer(Product product, LocalDateTime than) {
+        return product.getUpdatedAt() != null && than != null && product.getUpdatedAt().isAfter(than);
+    }
+
+    /**
+     * Snapshot records not in {@code changed} or {@code deleted} are current; every
+     * product in {@code changed} is current.
+     */
+    public record View(CatalogSnapshot snapshot, Map<Long, Product> changed, Set<Long> deleted) {
+
+        public boolean isCurrent(int index) {
+            long id = snapshot.id(index);
+            return !changed.containsKey(id) && !deleted.contains(id);
+        }
+    }
+}
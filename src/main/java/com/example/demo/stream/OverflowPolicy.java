@@ -0,0 +1,11 @@
+package com.example.demo.stream;
+
+/**
+ * What to do when a subscriber's buffer is full.
+ */
+public enum OverflowPolicy {
+    /** Discard the oldest buffered event to make room for the new one. */
+    DROP_OLDEST,
+    /** Complete the stream; the client is expected to reconnect and resynchronize. */
+    DISCONNECT
+}
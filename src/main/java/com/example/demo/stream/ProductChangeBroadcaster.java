@@ -0,0 +1,155 @@
+package com.example.demo.stream;
+
+import com.example.demo.model.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans committed product changes out to Server-Sent Events subscribers.
+ * <p>
+ * Each event is encoded once, matched against every subscriber's filter and
+ * queued in that subscriber's bounded buffer. Writes happen on a small shared
+ * pool, so idle connections cost only their buffer and an async request slot.
+ * Events published outside a JPA transaction (the reactive stack publishes them
+ * once its R2DBC transaction has committed) are dispatched immediately.
+ */
+@Component
+public class ProductChangeBroadcaster implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeBroadcaster.class);
+
+    private final ObjectMapper objectMapper;
+    private final Set<ProductStreamSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolTaskExecutor writer;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Counter deliveredEvents;
+    private final Counter droppedEvents;
+    private final Counter overflowDisconnects;
+
+    public ProductChangeBroadcaster(ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${product.stream.timeout:PT30M}") Duration timeout,
+                                    @Value("${product.stream.buffer-size:256}") int bufferSize,
+                                    @Value("${product.stream.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                                    @Value("${product.stream.writer-threads:4}") int writerThreads) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+
+        this.writer = new ThreadPoolTaskExecutor();
+        this.writer.setCorePoolSize(writerThreads);
+        this.writer.setMaxPoolSize(writerThreads);
+        this.writer.setThreadNamePrefix("product-stream-");
+        this.writer.initialize();
+
+        Gauge.builder("product.stream.subscribers", subscriptions, Set::size)
+            .description("Connected product change stream subscribers")
+            .register(meterRegistry);
+        this.deliveredEvents = Counter.builder("product.stream.events.queued")
+            .description("Events queued for stream subscribers")
+            .register(meterRegistry);
+        this.droppedEvents = Counter.builder("product.stream.events.dropped")
+            .description("Events discarded because a subscriber's buffer was full")
+            .register(meterRegistry);
+        this.overflowDisconnects = Counter.builder("product.stream.disconnects.overflow")
+            .description("Subscribers disconnected because their buffer was full")
+            .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(ProductStreamFilter filter) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        ProductStreamSubscription subscription =
+            new ProductStreamSubscription(emitter, filter, bufferSize, overflowPolicy);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        ProductStreamSubscription.Message message = ProductStreamSubscription.Message.event(
+            String.valueOf(event.eventId()),
+            event.type().name().toLowerCase(Locale.ROOT),
+            encode(event));
+        for (ProductStreamSubscription subscription : subscriptions) {
+            if (subscription.filter().matches(event)) {
+                offer(subscription, message);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.stream.heartbeat-interval:PT30S}")
+    public void sendHeartbeats() {
+        ProductStreamSubscription.Message heartbeat = ProductStreamSubscription.Message.heartbeat();
+        for (ProductStreamSubscription subscription : subscriptions) {
+            offer(subscription, heartbeat);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.forEach(ProductStreamSubscription::close);
+        subscriptions.clear();
+        writer.shutdown();
+    }
+
+    private void offer(ProductStreamSubscription subscription, ProductStreamSubscription.Message message) {
+        switch (subscription.offer(message)) {
+            case ACCEPTED -> deliveredEvents.increment();
+            case DROPPED_OLDEST -> {
+                deliveredEvents.increment();
+                droppedEvents.increment();
+            }
+            case OVERFLOWED -> {
+                overflowDisconnects.increment();
+                subscriptions.remove(subscription);
+                subscription.emitter().complete();
+                return;
+            }
+            case CLOSED -> {
+                subscriptions.remove(subscription);
+                return;
+            }
+        }
+        subscription.scheduleDrain(writer);
+    }
+
+    private String encode(ProductChangedEvent event) {
+        try {
+            return event.product() != null
+                ? objectMapper.writeValueAsString(event.product())
+                : objectMapper.writeValueAsString(Map.of("id", event.productId()));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not encode change event {} for streaming", event.eventId(), e);
+            return "{}";
+        }
+    }
+}
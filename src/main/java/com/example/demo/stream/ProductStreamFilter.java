@@ -0,0 +1,41 @@
+package com.example.demo.stream;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Criteria a subscriber registers with. All criteria are optional and combined with AND.
+ * An update is delivered if the product matches before or after it, so subscribers see
+ * products leaving their range (e.g. a restock above the low-stock threshold). Price and
+ * stock criteria cannot be evaluated for deletions, so a deletion is delivered whenever
+ * the id criterion (if any) matches.
+ */
+public record ProductStreamFilter(
+    Set<Long> ids,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    Integer lowStockThreshold
+) {
+    public boolean matches(ProductChangedEvent event) {
+        if (ids != null && !ids.isEmpty() && !ids.contains(event.productId())) {
+            return false;
+        }
+        if (event.product() == null) {
+            return true;
+        }
+        return matches(event.product()) || (event.previous() != null && matches(event.previous()));
+    }
+
+    private boolean matches(Product product) {
+        if (minPrice != null && product.getPrice().compareTo(minPrice) < 0) {
+            return false;
+        }
+        if (maxPrice != null && product.getPrice().compareTo(maxPrice) > 0) {
+            return false;
+        }
+        return lowStockThreshold == null || product.getStockQuantity() <= lowStockThreshold;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One connected client. Events are queued in a bounded buffer and written by a
+ * shared executor, so an idle subscriber holds no thread and a slow one can only
+ * delay itself.
+ */
+class ProductStreamSubscription {
+
+    /** A message that has already been encoded once for all subscribers. */
+    record Message(String id, String name, String data, String comment) {
+        static Message event(String id, String name, String data) {
+            return new Message(id, name, data, null);
+        }
+
+        static Message heartbeat() {
+            return new Message(null, null, null, "heartbeat");
+        }
+    }
+
+    enum OfferResult { ACCEPTED, DROPPED_OLDEST, OVERFLOWED, CLOSED }
+
+    private final SseEmitter emitter;
+    private final ProductStreamFilter filter;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Deque<Message> buffer = new ArrayDeque<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    ProductStreamSubscription(SseEmitter emitter, ProductStreamFilter filter, int capacity,
+                              OverflowPolicy overflowPolicy) {
+        this.emitter = emitter;
+        this.filter = filter;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    ProductStreamFilter filter() {
+        return filter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    OfferResult offer(Message message) {
+        synchronized (buffer) {
+            if (closed) {
+                return OfferResult.CLOSED;
+            }
+            OfferResult result = OfferResult.ACCEPTED;
+            if (buffer.size() >= capacity) {
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    buffer.clear();
+                    closed = true;
+                    return OfferResult.OVERFLOWED;
+                }
+                buffer.pollFirst();
+                result = OfferResult.DROPPED_OLDEST;
+            }
+            buffer.addLast(message);
+            return result;
+        }
+    }
+
+    /**
+     * Schedules a drain on the executor unless one is already running.
+     */
+    void scheduleDrain(Executor executor) {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    void close() {
+        synchronized (buffer) {
+            closed = true;
+            buffer.clear();
+        }
+        emitter.complete();
+    }
+
+    private void drain() {
+        while (true) {
+            Message message;
+            while ((message = poll()) != null) {
+                try {
+                    emitter.send(toEvent(message));
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the emitter callbacks unregister us.
+                    synchronized (buffer) {
+                        closed = true;
+                        buffer.clear();
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+            draining.set(false);
+            if (isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private Message poll() {
+        synchronized (buffer) {
+            return buffer.pollFirst();
+        }
+    }
+
+    private boolean isEmpty() {
+        synchronized (buffer) {
+            return buffer.isEmpty();
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(Message message) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event();
+        if (message.comment() != null) {
+            return event.comment(message.comment());
+        }
+        return event.id(message.id()).name(message.name()).data(message.data(), MediaType.APPLICATION_JSON);
+    }
+}
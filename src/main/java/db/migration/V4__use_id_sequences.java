@@ -0,0 +1,51 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Replaces the identity columns of {@code products} and {@code product_outbox}
+ * with sequences, so ids can be generated ahead of the insert and stay globally
+ * unique when the tables are split across shards.
+ * <p>
+ * Shard {@code i} of {@code n} (Flyway placeholders {@code shard_index} and
+ * {@code shard_count}, defaulting to 0 and 1) only hands out ids congruent to
+ * {@code i} modulo {@code n}. Sequences start above existing rows, so the
+ * migration is safe on a populated database. Written in Java because the start
+ * value depends on the data.
+ */
+public class V4__use_id_sequences extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Map<String, String> placeholders = context.getConfiguration().getPlaceholders();
+        int shard = Integer.parseInt(placeholders.getOrDefault("shard_index", "0"));
+        int shards = Integer.parseInt(placeholders.getOrDefault("shard_count", "1"));
+
+        try (Statement statement = context.getConnection().createStatement()) {
+            useSequence(statement, "products", "products_seq", shard, shards);
+            useSequence(statement, "product_outbox", "product_outbox_seq", shard, shards);
+        }
+    }
+
+    private static void useSequence(Statement statement, String table, String sequence, int shard, int shards)
+            throws SQLException {
+        long maxId;
+        try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            result.next();
+            maxId = result.getLong(1);
+        }
+        // Smallest id above maxId that belongs to this shard
+        long start = maxId + 1 + Math.floorMod(shard - (maxId + 1), (long) shards);
+
+        statement.execute("CREATE SEQUENCE " + sequence + " START WITH " + start + " INCREMENT BY " + shards);
+        statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+        // Inserts that don't supply an id (plain SQL, R2DBC) draw from the same sequence
+        statement.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT NEXT VALUE FOR " + sequence);
+    }
+}
@@ -0,0 +1,48 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Lets Hibernate reserve {@value #POOL_SIZE} ids per sequence call on an unsharded
+ * database ({@code shard_count} 1), matching the {@code allocationSize} of the
+ * entities. Sharded sequences keep striding by the shard count; the sharded
+ * profile turns pooling off, since a block of consecutive ids would span shards.
+ * <p>
+ * Hibernate's pooled optimizer treats each value it draws as the top of a block,
+ * so the sequence restarts a full block above the existing rows.
+ * <p>
+ * The column defaults from {@code V4__use_id_sequences} draw from the same
+ * sequences, so each plain SQL insert (R2DBC, seeds, the H2 console) now skips
+ * a whole block. Its id can't collide with a pooled one, but ids get sparse.
+ */
+public class V5__pool_unsharded_ids extends BaseJavaMigration {
+
+    static final int POOL_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        int shards = Integer.parseInt(context.getConfiguration().getPlaceholders().getOrDefault("shard_count", "1"));
+        if (shards > 1) {
+            return;
+        }
+        try (Statement statement = context.getConnection().createStatement()) {
+            poolSequence(statement, "products", "products_seq");
+            poolSequence(statement, "product_outbox", "product_outbox_seq");
+        }
+    }
+
+    private static void poolSequence(Statement statement, String table, String sequence) throws SQLException {
+        long maxId;
+        try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            result.next();
+            maxId = result.getLong(1);
+        }
+        statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + POOL_SIZE)
+            + " INCREMENT BY " + POOL_SIZE);
+    }
+}
@@ -0,0 +1,13 @@
+CREATE TABLE products (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           VARCHAR(255)   NOT NULL,
+    description    VARCHAR(1000),
+    price          NUMERIC(10, 2) NOT NULL,
+    stock_quantity INTEGER        NOT NULL,
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6),
+    CONSTRAINT uk_products_name UNIQUE (name)
+);
+
+CREATE INDEX idx_products_price ON products (price);
+CREATE INDEX idx_products_stock_quantity ON products (stock_quantity);
@@ -0,0 +1,10 @@
+CREATE TABLE product_outbox (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id   BIGINT       NOT NULL,
+    event_type   VARCHAR(16)  NOT NULL,
+    payload      VARCHAR(4000),
+    created_at   TIMESTAMP(6) NOT NULL,
+    published_at TIMESTAMP(6)
+);
+
+CREATE INDEX idx_product_outbox_published_at ON product_outbox (published_at);
@@ -0,0 +1,3 @@
+-- Catch-up reads of the catalog snapshot: products changed, and products deleted, since a point in time
+CREATE INDEX idx_products_updated_at ON products (updated_at);
+CREATE INDEX idx_product_outbox_created_at ON product_outbox (created_at);
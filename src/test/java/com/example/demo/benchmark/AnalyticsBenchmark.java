@@ -0,0 +1,96 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares downloading the whole catalog (what dashboards did to compute totals
+ * client-side) with the analytics endpoints. Cached valuation shows the
+ * steady state; histograms with a random bucket width miss the cache on nearly
+ * every request, so they show the cost of computing from the database and from
+ * the catalog snapshot.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=AnalyticsBenchmark}. Tunables:
+ * {@code benchmark.products}, {@code benchmark.concurrency}, {@code benchmark.duration-seconds}.
+ */
+@Tag("benchmark")
+class AnalyticsBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 50_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 4);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 20));
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    @TempDir
+    Path dataDir;
+
+    private final LoadDriver driver = new LoadDriver();
+
+    @Test
+    void analyticsVersusFullDownload() throws Exception {
+        try (ConfigurableApplicationContext context = start(false)) {
+            String baseUrl = baseUrl(context);
+            LoadDriver.Result download = driver.run(() -> LoadDriver.get(baseUrl).build(),
+                CONCURRENCY, WARMUP, DURATION);
+            LoadDriver.Result valuation = driver.run(() -> LoadDriver.get(baseUrl + "/analytics/valuation").build(),
+                CONCURRENCY, WARMUP, DURATION);
+            LoadDriver.Result fromDatabase = driver.run(() -> histogram(baseUrl), CONCURRENCY, WARMUP, DURATION);
+
+            try (ConfigurableApplicationContext snapshotContext = start(true)) {
+                String snapshotUrl = baseUrl(snapshotContext);
+                LoadDriver.Result fromSnapshot = driver.run(() -> histogram(snapshotUrl),
+                    CONCURRENCY, WARMUP, DURATION);
+
+                System.out.printf("%nCatalog aggregates over %,d products%n", PRODUCTS);
+                System.out.println("  GET /products (full download):     " + download);
+                System.out.println("  valuation (cached):                " + valuation);
+                System.out.println("  histogram, computed in database:   " + fromDatabase);
+                System.out.println("  histogram, computed from snapshot: " + fromSnapshot);
+
+                assertEquals(0, fromSnapshot.errors());
+            }
+            assertEquals(0, download.errors());
+            assertEquals(0, valuation.errors());
+            assertEquals(0, fromDatabase.errors());
+        }
+    }
+
+    private HttpRequest histogram(String baseUrl) {
+        BigDecimal width = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(100, 1_000_000), 2);
+        return LoadDriver.get(baseUrl + "/analytics/price-histogram?bucketWidth=" + width).build();
+    }
+
+    private ConfigurableApplicationContext start(boolean snapshot) {
+        String database = "benchanalytics" + snapshot;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+            .properties(
+                "server.port=0",
+                LoadDriver.PLAIN_PASSWORD,
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.url=r2dbc:h2:mem:///" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.example.demo=INFO",
+                "catalog.snapshot.enabled=" + snapshot,
+                "catalog.snapshot.directory=" + dataDir.resolve("snapshots"))
+            .run();
+        BenchmarkCatalog.seed(context, PRODUCTS);
+        return context;
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        return "http://localhost:" + port + "/api/v1/products";
+    }
+}
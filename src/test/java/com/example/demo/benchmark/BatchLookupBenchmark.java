@@ -0,0 +1,133 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Renders storefront-style pages of {@code benchmark.page-size} products against
+ * a cold cache three ways: one request per product without batching, one request
+ * per product with by-id batching, and a single multi-get. Reports page latency
+ * and database queries per page.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=BatchLookupBenchmark}. Tunables:
+ * {@code benchmark.products}, {@code benchmark.page-size}, {@code benchmark.pages},
+ * {@code benchmark.concurrency} (pages rendered in parallel).
+ */
+@Tag("benchmark")
+class BatchLookupBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 100_000);
+    private static final int PAGE_SIZE = Integer.getInteger("benchmark.page-size", 40);
+    private static final int PAGES = Integer.getInteger("benchmark.pages", 500);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 8);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void pageRender() throws Exception {
+        Run unbatched = measure("PT0S", false);
+        Run batched = measure("PT0.002S", false);
+        Run multiGet = measure("PT0.002S", true);
+
+        System.out.printf("%nPages of %d products from a %,d product catalog, %d pages in parallel%n",
+            PAGE_SIZE, PRODUCTS, CONCURRENCY);
+        System.out.println("  single GETs, no batching: " + unbatched);
+        System.out.println("  single GETs, batched:     " + batched);
+        System.out.println("  one multi-get:            " + multiGet);
+
+        assertEquals(0, unbatched.errors() + batched.errors() + multiGet.errors());
+    }
+
+    private Run measure(String window, boolean multiGet) throws Exception {
+        String database = "benchbatch" + System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                    "server.port=0",
+                    LoadDriver.PLAIN_PASSWORD,
+                    "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                    "spring.r2dbc.url=r2dbc:h2:mem:///" + database + ";DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "logging.level.com.example.demo=INFO",
+                    "server.tomcat.threads.max=" + PAGE_SIZE * CONCURRENCY,
+                    "product.batch.window=" + window)
+                .run()) {
+            BenchmarkCatalog.seed(context, PRODUCTS);
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String baseUrl = "http://localhost:" + port + "/api/v1/products";
+
+            long[] latencies = new long[PAGES];
+            AtomicLong errors = new AtomicLong();
+            double queriesBefore = batchQueries(registry);
+            ExecutorService pages = Executors.newFixedThreadPool(CONCURRENCY);
+            try {
+                List<CompletableFuture<Void>> rendered = new ArrayList<>();
+                for (int page = 0; page < PAGES; page++) {
+                    int index = page;
+                    rendered.add(CompletableFuture.runAsync(() -> {
+                        long start = System.nanoTime();
+                        errors.addAndGet(render(baseUrl, randomIds(), multiGet));
+                        latencies[index] = System.nanoTime() - start;
+                    }, pages));
+                }
+                CompletableFuture.allOf(rendered.toArray(CompletableFuture[]::new)).join();
+            } finally {
+                pages.shutdown();
+            }
+            Arrays.sort(latencies);
+            double queriesPerPage = multiGet ? 1 : (batchQueries(registry) - queriesBefore) / PAGES;
+            return new Run(latencies[PAGES / 2] / 1e6, latencies[PAGES * 99 / 100] / 1e6,
+                queriesPerPage, errors.get());
+        }
+    }
+
+    private long render(String baseUrl, List<Long> ids, boolean multiGet) {
+        if (multiGet) {
+            String query = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+            return client.sendAsync(LoadDriver.get(baseUrl + "?ids=" + query).build(),
+                    HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() == 200 ? 0L : 1L)
+                .join();
+        }
+        List<CompletableFuture<Long>> responses = ids.stream()
+            .map(id -> client.sendAsync(LoadDriver.get(baseUrl + "/" + id).build(),
+                    HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() == 200 ? 0L : 1L))
+            .toList();
+        return responses.stream().mapToLong(CompletableFuture::join).sum();
+    }
+
+    private static List<Long> randomIds() {
+        return ThreadLocalRandom.current().longs(PAGE_SIZE, 1, PRODUCTS + 1).boxed().toList();
+    }
+
+    private static double batchQueries(MeterRegistry registry) {
+        return registry.get("product.batch.queries").counter().count();
+    }
+
+    private record Run(double p50Millis, double p99Millis, double queriesPerPage, long errors) {
+        @Override
+        public String toString() {
+            return String.format("p50 %.1f ms, p99 %.1f ms per page; %.1f queries per page",
+                p50Millis, p99Millis, queriesPerPage);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.cache.ProductExistenceFilter;
+import com.example.demo.snapshot.ProductReadModel;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Inserts synthetic products straight through JDBC so benchmarks start from a
+ * known catalog without paying for the service write path.
+ */
+final class BenchmarkCatalog {
+
+    private BenchmarkCatalog() {
+    }
+
+    /**
+     * Seeds a running application, then refreshes the derived state that is
+     * otherwise only built at startup (the existence filter and, if enabled, the
+     * catalog snapshot).
+     */
+    static void seed(ApplicationContext context, int count) {
+        seed(context.getBean(JdbcTemplate.class), count);
+        context.getBean(ProductExistenceFilter.class).rebuild();
+        ProductReadModel readModel = context.getBean(ProductReadModel.class);
+        if (readModel.isReady()) {
+            readModel.rollSnapshot();
+        }
+    }
+
+    /**
+     * Inserts {@code count} products into an empty table; ids run from 1 to {@code count}
+     * and later ids are more recently updated.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = LocalDateTime.now().minusSeconds(count);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Timestamp updatedAt = Timestamp.valueOf(start.plusSeconds(i));
+            rows.add(new Object[] {
+                i,
+                "Product " + i,
+                "Description of product " + i + " ".repeat(random.nextInt(0, 400)),
+                BigDecimal.valueOf(random.nextInt(100, 100_000), 2),
+                random.nextInt(0, 500),
+                updatedAt,
+                updatedAt
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, price, stock_quantity, created_at, "
+            + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        // The sequence hands out blocks of 50 ids, each ending at the value drawn
+        jdbcTemplate.execute("ALTER SEQUENCE products_seq RESTART WITH " + (count + 50));
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Launches the packaged application in fresh JVMs and reports the median time
+ * from process start to the first served request, for the plain fat jar, the fat
+ * jar with the {@code prod} profile, and the {@code aot-cds} build.
+ * <p>
+ * Needs the artifacts on disk: run {@code mvn -Paot-cds package -DskipTests}
+ * first, then {@code mvn -Pbenchmark test -Dtest=ColdStartBenchmark}. Modes whose
+ * artifacts are missing are skipped. Tunables: {@code benchmark.cold-start.runs},
+ * {@code benchmark.cold-start.timeout-seconds}.
+ */
+@Tag("benchmark")
+class ColdStartBenchmark {
+
+    private static final int RUNS = Integer.getInteger("benchmark.cold-start.runs", 5);
+    private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("benchmark.cold-start.timeout-seconds", 120));
+    private static final Path TARGET = Paths.get("target");
+    private static final Path CDS = TARGET.resolve("cds");
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    @TempDir
+    Path logDir;
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        Path fatJar = findJar(TARGET, "demo-*.jar");
+        Path cdsJar = findJar(CDS, "demo-*-cds.jar");
+        assumeTrue(fatJar != null, "No packaged jar in target/; run mvn package first");
+
+        List<String> java = List.of(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        Mode baseline = new Mode("fat jar", concat(java, "-jar", fatJar.toString()));
+        Mode prod = new Mode("fat jar, prod", concat(java, "-Dspring.profiles.active=prod", "-jar", fatJar.toString()));
+
+        System.out.printf("%nTime to first request (median of %d JVM launches)%n", RUNS);
+        System.out.println("  " + baseline.measure());
+        System.out.println("  " + prod.measure());
+        if (cdsJar != null && Files.exists(CDS.resolve("application.jsa"))) {
+            Mode aotCds = new Mode("AOT + AppCDS", concat(java,
+                "-XX:SharedArchiveFile=" + CDS.resolve("application.jsa"),
+                "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=prod",
+                "-cp", cdsJar + File.pathSeparator + CDS.resolve("lib") + File.separator + "*",
+                "com.example.demo.DemoApplication"));
+            System.out.println("  " + aotCds.measure());
+        } else {
+            System.out.println("  AOT + AppCDS: skipped, run mvn -Paot-cds package first");
+        }
+    }
+
+    private final class Mode {
+
+        private final String name;
+        private final List<String> command;
+
+        Mode(String name, List<String> command) {
+            this.name = name;
+            this.command = command;
+        }
+
+        String measure() throws Exception {
+            long[] millis = new long[RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                millis[run] = launch(run);
+            }
+            Arrays.sort(millis);
+            return String.format("%-14s median %5d ms (min %d, max %d)",
+                name + ":", millis[RUNS / 2], millis[0], millis[RUNS - 1]);
+        }
+
+        private long launch(int run) throws Exception {
+            int port = freePort();
+            Path log = logDir.resolve(name.replaceAll("\\W+", "-") + "-" + run + ".log");
+            Process process = new ProcessBuilder(concat(command, "--server.port=" + port))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+            long start = System.nanoTime();
+            try {
+                String url = "http://localhost:" + port + "/api/v1/products";
+                long deadline = start + TIMEOUT.toNanos();
+                while (System.nanoTime() < deadline) {
+                    if (!process.isAlive()) {
+                        fail(name + " exited with " + process.exitValue() + ", see " + log);
+                    }
+                    try {
+                        HttpResponse<Void> response = client.send(LoadDriver.get(url).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                        }
+                    } catch (ConnectException notListeningYet) {
+                        // keep polling
+                    }
+                    Thread.sleep(10);
+                }
+                fail(name + " not serving after " + TIMEOUT.toSeconds() + "s, see " + log);
+                return -1;
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+    }
+
+    private static Path findJar(Path directory, String glob) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            PathMatcher matcher = directory.getFileSystem().getPathMatcher("glob:" + glob);
+            return files.filter(file -> matcher.matches(file.getFileName()))
+                .filter(file -> !file.getFileName().toString().endsWith("-cds.jar") || glob.endsWith("-cds.jar"))
+                .filter(file -> !file.getFileName().toString().endsWith(".original"))
+                .findFirst()
+                .orElse(null);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> concat(List<String> head, String... tail) {
+        List<String> all = new ArrayList<>(head);
+        all.addAll(List.of(tail));
+        return all;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.cache.ProductJsonCache;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the CPU cost of product responses with and without the pre-encoded
+ * JSON cache: per-response encoding CPU on one thread, and process CPU per
+ * request while serving the hottest 1% of products over HTTP.
+ * <p>
+ * Process CPU includes the in-JVM load generator, which does the same work in
+ * both runs, so compare the difference rather than the absolute numbers.
+ * Run with {@code mvn -Pbenchmark test -Dtest=JsonCacheBenchmark}. Tunables:
+ * {@code benchmark.products}, {@code benchmark.concurrency}, {@code benchmark.duration-seconds}.
+ */
+@Tag("benchmark")
+class JsonCacheBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 32);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 20));
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final int ENCODINGS = 200_000;
+
+    private final LoadDriver driver = new LoadDriver();
+
+    @Test
+    void cpuPerRequest() throws Exception {
+        Run uncached = measure(false);
+        Run cached = measure(true);
+
+        System.out.printf("%nProduct reads over the hottest %d of %,d products (1000-char descriptions)%n",
+            PRODUCTS / 100, PRODUCTS);
+        System.out.println("  Jackson per request: " + uncached);
+        System.out.println("  pre-encoded bytes:   " + cached);
+        System.out.printf("  saved: %.1f us CPU per request%n",
+            (uncached.processCpuNanosPerRequest() - cached.processCpuNanosPerRequest()) / 1000);
+
+        assertEquals(0, uncached.http().errors());
+        assertEquals(0, cached.http().errors());
+    }
+
+    private Run measure(boolean jsonCache) throws InterruptedException {
+        String database = "benchjson" + jsonCache;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                    "server.port=0",
+                    LoadDriver.PLAIN_PASSWORD,
+                    "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                    "spring.r2dbc.url=r2dbc:h2:mem:///" + database + ";DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "logging.level.com.example.demo=INFO",
+                    "cache.json.enabled=" + jsonCache)
+                .run()) {
+            BenchmarkCatalog.seed(context, PRODUCTS);
+            context.getBean(JdbcTemplate.class).update("UPDATE products SET description = REPEAT('x', 1000)");
+
+            double encodeNanos = encodingCpu(context);
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String baseUrl = "http://localhost:" + port + "/api/v1/products/";
+            int hot = Math.max(1, PRODUCTS / 100);
+            driver.run(() -> LoadDriver.get(baseUrl + ThreadLocalRandom.current().nextInt(1, hot + 1)).build(),
+                CONCURRENCY, WARMUP, Duration.ZERO);
+
+            long cpuBefore = processCpuNanos();
+            LoadDriver.Result http = driver.run(
+                () -> LoadDriver.get(baseUrl + ThreadLocalRandom.current().nextInt(1, hot + 1)).build(),
+                CONCURRENCY, Duration.ZERO, DURATION);
+            double cpuPerRequest = (double) (processCpuNanos() - cpuBefore) / Math.max(1, http.requests());
+            return new Run(encodeNanos, cpuPerRequest, http);
+        }
+    }
+
+    /**
+     * Thread CPU to produce the response body for one hot product, on the same
+     * path the controller uses.
+     */
+    private static double encodingCpu(ConfigurableApplicationContext context) {
+        ProductJsonCache jsonCache = context.getBean(ProductJsonCache.class);
+        List<Product> products = context.getBean(ProductRepository.class).findAllById(List.of(1L, 2L, 3L, 4L));
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        for (int i = 0; i < ENCODINGS / 10; i++) {
+            sink += jsonCache.json(products.get(i % products.size())).length;
+        }
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ENCODINGS; i++) {
+            sink += jsonCache.json(products.get(i % products.size())).length;
+        }
+        long elapsed = threads.getCurrentThreadCpuTime() - start;
+        if (sink == 0) {
+            throw new IllegalStateException();
+        }
+        return (double) elapsed / ENCODINGS;
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+            .getProcessCpuTime();
+    }
+
+    private record Run(double encodeNanos, double processCpuNanosPerRequest, LoadDriver.Result http) {
+        @Override
+        public String toString() {
+            return String.format("encode %.2f us/response; process CPU %.1f us/request; %s",
+                encodeNanos / 1000, processCpuNanosPerRequest / 1000, http);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Minimal closed-loop HTTP load generator for the benchmark tests: keeps
+ * {@code concurrency} requests in flight for the given duration and records the
+ * latency of every response.
+ */
+final class LoadDriver {
+
+    static final String BASIC_AUTH = "Basic " + Base64.getEncoder()
+        .encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * Stores the benchmark user's password in plain text: checking the configured
+     * BCrypt hash on every request would dominate the measured latency.
+     */
+    static final String PLAIN_PASSWORD = "spring.security.user.password={noop}admin";
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    Result run(Supplier<HttpRequest> requests, int concurrency, Duration warmup, Duration duration)
+            throws InterruptedException {
+        drive(requests, concurrency, warmup, new ConcurrentLinkedQueue<>(), new AtomicLong(), new LongAdder());
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong bytes = new AtomicLong();
+        LongAdder errors = new LongAdder();
+        long elapsed = drive(requests, concurrency, duration, latencies, bytes, errors);
+        return Result.of(latencies, bytes.get(), errors.sum(), elapsed);
+    }
+
+    static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .header("Authorization", BASIC_AUTH)
+            .timeout(Duration.ofSeconds(30))
+            .GET();
+    }
+
+    private long drive(Supplier<HttpRequest> requests, int concurrency, Duration duration,
+                       ConcurrentLinkedQueue<Long> latencies, AtomicLong bytes, LongAdder errors)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            client.sendAsync(requests.get(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, failure) -> {
+                    if (failure != null || response.statusCode() >= 400) {
+                        errors.increment();
+                    } else {
+                        latencies.add(System.nanoTime() - sent);
+                        bytes.addAndGet(response.body().length);
+                    }
+                    inFlight.release();
+                });
+        }
+        inFlight.acquire(concurrency);
+        return System.nanoTime() - start;
+    }
+
+    record Result(long requests, long errors, double throughput, double meanBytes,
+                  double p50Millis, double p99Millis, double maxMillis) {
+
+        static Result of(ConcurrentLinkedQueue<Long> latencies, long bytes, long errors, long elapsedNanos) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            int count = sorted.length;
+            return new Result(
+                count,
+                errors,
+                count / (elapsedNanos / 1e9),
+                count == 0 ? 0 : (double) bytes / count,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d requests (%d errors), %,.0f req/s, %,.0f bytes/response, "
+                    + "p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                requests, errors, throughput, meanBytes, p50Millis, p99Millis, maxMillis);
+        }
+    }
+}
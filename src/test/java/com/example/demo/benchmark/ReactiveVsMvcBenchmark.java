@@ -0,0 +1,91 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the same read mix against the Spring MVC + JPA stack and the WebFlux +
+ * R2DBC stack, each limited to a small number of server threads, and prints
+ * throughput and latency for both. The MVC stack runs without its result and
+ * encoded-JSON caches, which the reactive stack doesn't have, so every read
+ * reaches the database on both sides.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=ReactiveVsMvcBenchmark}. Tunables:
+ * {@code benchmark.concurrency}, {@code benchmark.server-threads},
+ * {@code benchmark.products}, {@code benchmark.duration-seconds}.
+ */
+@Tag("benchmark")
+class ReactiveVsMvcBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 256);
+    private static final int SERVER_THREADS = Integer.getInteger("benchmark.server-threads", 4);
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 2_000);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 20));
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private final LoadDriver driver = new LoadDriver();
+
+    @Test
+    void compareStacks() throws Exception {
+        LoadDriver.Result mvc = measure(false);
+        LoadDriver.Result reactive = measure(true);
+
+        System.out.printf("%nProduct reads, %d concurrent clients, %d server threads, %d products%n",
+            CONCURRENCY, SERVER_THREADS, PRODUCTS);
+        System.out.println("  MVC + JPA:       " + mvc);
+        System.out.println("  WebFlux + R2DBC: " + reactive);
+
+        assertEquals(0, mvc.errors());
+        assertEquals(0, reactive.errors());
+    }
+
+    private LoadDriver.Result measure(boolean reactive) throws InterruptedException {
+        String database = reactive ? "benchreactive" : "benchmvc";
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(DemoApplication.class)
+            .properties(
+                "server.port=0",
+                LoadDriver.PLAIN_PASSWORD,
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.url=r2dbc:h2:mem:///" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "spring.cache.type=none",
+                "cache.json.enabled=false",
+                "logging.level.com.example.demo=INFO",
+                "server.tomcat.threads.max=" + SERVER_THREADS,
+                "server.tomcat.threads.min-spare=" + SERVER_THREADS);
+        String ioWorkerCount = System.getProperty("reactor.netty.ioWorkerCount");
+        if (reactive) {
+            System.setProperty("reactor.netty.ioWorkerCount", String.valueOf(SERVER_THREADS));
+            builder.profiles("reactive");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            BenchmarkCatalog.seed(context, PRODUCTS);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String baseUrl = "http://localhost:" + port + "/api/v1/products";
+
+            return driver.run(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                String url = random.nextInt(10) == 0
+                    ? baseUrl + "/search?lowStockThreshold=" + random.nextInt(5, 20)
+                    : baseUrl + "/" + random.nextInt(1, PRODUCTS + 1);
+                return LoadDriver.get(url).build();
+            }, CONCURRENCY, WARMUP, DURATION);
+        } finally {
+            // Later tests in the same JVM must not inherit the benchmark's event loop size
+            if (ioWorkerCount == null) {
+                System.clearProperty("reactor.netty.ioWorkerCount");
+            } else {
+                System.setProperty("reactor.netty.ioWorkerCount", ioWorkerCount);
+            }
+        }
+    }
+}
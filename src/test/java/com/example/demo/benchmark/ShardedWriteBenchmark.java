@@ -0,0 +1,83 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives concurrent product creates against the sharded profile with 1, 2 and 4
+ * embedded H2 shards. Every create commits the product and its outbox event on
+ * the shard it routes to, so throughput should grow with the shard count until
+ * the web tier becomes the bottleneck.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=ShardedWriteBenchmark}. Tunables:
+ * {@code benchmark.concurrency}, {@code benchmark.duration-seconds}.
+ */
+@Tag("benchmark")
+class ShardedWriteBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 32);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 20));
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final int[] SHARD_COUNTS = {1, 2, 4};
+
+    private final LoadDriver driver = new LoadDriver();
+
+    @Test
+    void writeThroughputByShardCount() throws Exception {
+        Map<Integer, LoadDriver.Result> results = new LinkedHashMap<>();
+        for (int shards : SHARD_COUNTS) {
+            try (ConfigurableApplicationContext context = start(shards)) {
+                String baseUrl = baseUrl(context);
+                AtomicLong sequence = new AtomicLong();
+                results.put(shards, driver.run(() -> create(baseUrl, sequence.incrementAndGet()),
+                    CONCURRENCY, WARMUP, DURATION));
+            }
+        }
+
+        System.out.printf("%nPOST /products with %d requests in flight%n", CONCURRENCY);
+        results.forEach((shards, result) -> System.out.printf("  %d shard(s): %s%n", shards, result));
+
+        results.values().forEach(result -> assertEquals(0, result.errors()));
+    }
+
+    private static HttpRequest create(String baseUrl, long sequence) {
+        String body = String.format("{\"name\":\"Benchmark product %d\",\"description\":\"Sharded write %d\","
+            + "\"price\":%d.99,\"stockQuantity\":%d}", sequence, sequence, sequence % 500, sequence % 1000);
+        return HttpRequest.newBuilder(URI.create(baseUrl))
+            .header("Authorization", LoadDriver.BASIC_AUTH)
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(30))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private static ConfigurableApplicationContext start(int shards) {
+        return new SpringApplicationBuilder(DemoApplication.class)
+            .profiles("sharded")
+            .properties(
+                "server.port=0",
+                LoadDriver.PLAIN_PASSWORD,
+                "sharding.shards=" + shards,
+                "sharding.url-pattern=jdbc:h2:mem:benchshards" + shards + "_%d;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.example.demo=INFO")
+            .run();
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        return "http://localhost:" + port + "/api/v1/products";
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares full-entity list responses with {@code fields=id,name,price,stockQuantity}
+ * over a catalog with 1000-character descriptions, reporting bytes per response
+ * and latency. Caching is switched off so every request pays for the query.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=SparseFieldsBenchmark}. Tunables:
+ * {@code benchmark.products}, {@code benchmark.concurrency}, {@code benchmark.duration-seconds}.
+ */
+@Tag("benchmark")
+class SparseFieldsBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 5_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 8);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 20));
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private final LoadDriver driver = new LoadDriver();
+
+    @Test
+    void listPayloadAndLatency() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                    "server.port=0",
+                    LoadDriver.PLAIN_PASSWORD,
+                    "spring.datasource.url=jdbc:h2:mem:benchfields;DB_CLOSE_DELAY=-1",
+                    "spring.r2dbc.url=r2dbc:h2:mem:///benchfields;DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "spring.cache.type=none",
+                    "logging.level.com.example.demo=INFO")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            BenchmarkCatalog.seed(jdbcTemplate, PRODUCTS);
+            jdbcTemplate.update("UPDATE products SET description = REPEAT('x', 1000)");
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String baseUrl = "http://localhost:" + port + "/api/v1/products";
+
+            LoadDriver.Result full = driver.run(() -> LoadDriver.get(baseUrl).build(),
+                CONCURRENCY, WARMUP, DURATION);
+            LoadDriver.Result sparse = driver.run(
+                () -> LoadDriver.get(baseUrl + "?fields=id,name,price,stockQuantity").build(),
+                CONCURRENCY, WARMUP, DURATION);
+
+            System.out.printf("%nGET /products over %,d products with 1000-char descriptions%n", PRODUCTS);
+            System.out.println("  full entity:                        " + full);
+            System.out.println("  fields=id,name,price,stockQuantity: " + sparse);
+            System.out.printf("  bytes per response: %.0f%% of full%n", 100 * sparse.meanBytes() / full.meanBytes());
+
+            assertEquals(0, full.errors());
+            assertEquals(0, sparse.errors());
+        }
+    }
+}
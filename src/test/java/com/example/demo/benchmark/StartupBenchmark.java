@@ -0,0 +1,105 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Restarts the application against a file-backed database and reports the time
+ * until it is ready to take traffic and the p99 latency of the first minute of
+ * reads: with no warm-up, with cache preloading, and serving from a catalog
+ * snapshot left behind by the previous run. Each run also reports how many
+ * by-id queries reached the database.
+ * <p>
+ * Restarts happen in the same JVM, so class loading and JIT warm-up are shared
+ * across runs; use it to compare persistence and cache settings, not absolute
+ * JVM cold-start time. Run with {@code mvn -Pbenchmark test -Dtest=StartupBenchmark}.
+ * Tunables: {@code benchmark.products}, {@code benchmark.first-minute-seconds},
+ * {@code benchmark.concurrency}.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 32);
+    private static final Duration FIRST_MINUTE = Duration.ofSeconds(Long.getLong("benchmark.first-minute-seconds", 60));
+
+    @TempDir
+    Path dataDir;
+
+    private final LoadDriver driver = new LoadDriver();
+
+    @Test
+    void timeToReadyAndFirstMinuteLatency() throws Exception {
+        try (ConfigurableApplicationContext context = start(false, false)) {
+            BenchmarkCatalog.seed(context.getBean(JdbcTemplate.class), PRODUCTS);
+        }
+
+        Run cold = measure(false, false);
+        Run preloaded = measure(true, false);
+        // The first snapshot-enabled start writes the snapshot the measured restart maps
+        start(false, true).close();
+        Run snapshot = measure(false, true);
+
+        System.out.printf("%nRestart with %,d persisted products%n", PRODUCTS);
+        System.out.println("  no preload:    " + cold);
+        System.out.println("  with preload:  " + preloaded);
+        System.out.println("  with snapshot: " + snapshot);
+
+        assertEquals(0, cold.firstMinute().errors());
+        assertEquals(0, preloaded.firstMinute().errors());
+        assertEquals(0, snapshot.firstMinute().errors());
+    }
+
+    private Run measure(boolean preload, boolean snapshot) throws InterruptedException {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start(preload, snapshot)) {
+            Duration timeToReady = Duration.ofNanos(System.nanoTime() - start);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String baseUrl = "http://localhost:" + port + "/api/v1/products/";
+
+            // Skewed reads: most traffic goes to the most recently updated tenth of the catalog
+            LoadDriver.Result firstMinute = driver.run(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long id = random.nextInt(10) < 8
+                    ? PRODUCTS - random.nextInt(PRODUCTS / 10)
+                    : random.nextInt(1, PRODUCTS + 1);
+                return LoadDriver.get(baseUrl + id).build();
+            }, CONCURRENCY, Duration.ZERO, FIRST_MINUTE);
+            double queries = context.getBean(MeterRegistry.class).counter("product.batch.queries").count();
+            return new Run(timeToReady, firstMinute, (long) queries);
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean preload, boolean snapshot) {
+        return new SpringApplicationBuilder(DemoApplication.class)
+            .profiles("persistent")
+            .properties(
+                "server.port=0",
+                LoadDriver.PLAIN_PASSWORD,
+                "app.data-dir=" + dataDir.toAbsolutePath(),
+                "cache.preload.enabled=" + preload,
+                "cache.preload.size=" + PRODUCTS / 10,
+                "catalog.snapshot.enabled=" + snapshot)
+            .run();
+    }
+
+    private record Run(Duration timeToReady, LoadDriver.Result firstMinute, long databaseQueries) {
+        @Override
+        public String toString() {
+            return String.format("ready in %d ms; first %ds: %s; %,d by-id queries",
+                timeToReady.toMillis(), FIRST_MINUTE.toSeconds(), firstMinute, databaseQueries);
+        }
+    }
+}
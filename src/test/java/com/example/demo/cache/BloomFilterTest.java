@@ -0,0 +1,56 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_AddedKeys_AlwaysTrue() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+            filter.put("product " + id);
+        }
+
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(filter.mightContain(id));
+            assertTrue(filter.mightContain("product " + id));
+        }
+    }
+
+    @Test
+    void mightContain_AbsentKeys_StaysNearConfiguredRate() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        int falsePositives = 0;
+        for (long id = 1_000_000; id < 1_100_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positive rate " + falsePositives / 100_000.0);
+        assertEquals(0.01, filter.expectedFpp(), 0.005);
+    }
+
+    @Test
+    void create_SizesBitsAndHashesForRate() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+
+        // ~9.6 bits and ~7 hash functions per element at 1%
+        assertTrue(filter.bitSize() >= 9_585 && filter.bitSize() < 9_700);
+        assertEquals(7, filter.hashFunctions());
+        assertEquals(0, filter.insertions());
+    }
+
+    @Test
+    void create_InvalidArguments_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    }
+}
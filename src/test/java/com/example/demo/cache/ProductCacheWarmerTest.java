@@ -0,0 +1,78 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.shard.ProductShards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheWarmerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("products");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_PopulatesCacheBeforeReturning() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(productRepository.findRecentlyUpdatedIds(any(Pageable.class))).thenReturn(List.of(5L, 4L, 3L, 2L, 1L));
+        when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return StreamSupport.stream(((Iterable<Long>) invocation.getArgument(0)).spliterator(), false)
+                .map(ProductCacheWarmerTest::product)
+                .toList();
+        });
+
+        new ProductCacheWarmer(productRepository, new ProductShards(1), cacheManager, 5, 2, 2).run(null);
+
+        Cache cache = cacheManager.getCache("products");
+        for (long id = 1; id <= 5; id++) {
+            // Keyed by id and holding the Product itself, as @Cacheable getProductById(id) stores it
+            Product cached = cache.get(id, Product.class);
+            assertNotNull(cached);
+            assertEquals(id, cached.getId());
+        }
+        verify(productRepository, times(3)).findAllById(anyIterable());
+        assertFalse(threads.isEmpty());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("cache-preload-")));
+    }
+
+    @Test
+    void run_LoadFailure_DoesNotFailStartup() {
+        when(productRepository.findRecentlyUpdatedIds(any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(productRepository.findAllById(anyIterable())).thenThrow(new IllegalStateException("Database unavailable"));
+
+        assertDoesNotThrow(() ->
+            new ProductCacheWarmer(productRepository, new ProductShards(1), cacheManager, 2, 1, 10).run(null));
+        assertNull(cacheManager.getCache("products").get(1L));
+    }
+
+    private static Product product(Long id) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .description("Description " + id)
+                .price(new BigDecimal("10.00"))
+                .stockQuantity(5)
+                .build();
+    }
+}
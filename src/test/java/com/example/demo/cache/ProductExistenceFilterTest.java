@@ -0,0 +1,177 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+import com.example.demo.model.ProductEventType;
+import com.example.demo.repository.ProductKey;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.shard.ProductShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExistenceFilterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ProductExistenceFilter(productRepository, new ProductShards(1), transactionManager,
+            new SimpleMeterRegistry(), true, 10_000, 0.0001);
+    }
+
+    @Test
+    void beforeFirstBuild_EverythingMightExist() {
+        assertTrue(filter.mightContainId(42L));
+        assertTrue(filter.mightContainName("Anything"));
+    }
+
+    @Test
+    void rebuild_ContainsScannedProductsOnly() {
+        when(productRepository.count()).thenReturn(2L);
+        when(productRepository.streamKeys()).thenReturn(Stream.of(key(1L, "First"), key(2L, "Second")));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContainId(1L));
+        assertTrue(filter.mightContainId(2L));
+        assertTrue(filter.mightContainName(" first "));
+        assertFalse(filter.mightContainId(3L));
+        assertFalse(filter.mightContainName("Third"));
+    }
+
+    @Test
+    void onProductChanged_AddsCreatedAndRenamedProducts() {
+        when(productRepository.count()).thenReturn(0L);
+        when(productRepository.streamKeys()).thenReturn(Stream.empty());
+        filter.rebuild();
+
+        filter.onProductChanged(event(ProductEventType.CREATED, product(7L, "Created")));
+        filter.onProductChanged(event(ProductEventType.UPDATED, product(8L, "Renamed")));
+        filter.onProductChanged(new ProductChangedEvent(3L, ProductEventType.DELETED, 9L, null));
+
+        assertTrue(filter.mightContainId(7L));
+        assertTrue(filter.mightContainName("Renamed"));
+        assertFalse(filter.mightContainId(9L));
+    }
+
+    @Test
+    void rebuild_ProductCommittedDuringScan_IsReplayed() {
+        when(productRepository.count()).thenReturn(1L);
+        when(productRepository.streamKeys()).thenAnswer(invocation -> {
+            // Commits after the scan's snapshot was taken, so the scan itself doesn't return it
+            filter.onProductChanged(event(ProductEventType.CREATED, product(2L, "Late")));
+            return Stream.of(key(1L, "Early"));
+        });
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContainId(1L));
+        assertTrue(filter.mightContainId(2L));
+        assertTrue(filter.mightContainName("Late"));
+    }
+
+    @Test
+    void rebuild_ProductCommittedBeforeCount_IsReplayedOrScanned() {
+        when(productRepository.count()).thenAnswer(invocation -> {
+            // Capture is already open while counting
+            filter.onProductChanged(event(ProductEventType.CREATED, product(3L, "During count")));
+            return 0L;
+        });
+        when(productRepository.streamKeys()).thenReturn(Stream.empty());
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContainId(3L));
+    }
+
+    @Test
+    void rebuild_ConcurrentAdds_AreNeverLost() throws Exception {
+        when(productRepository.count()).thenReturn(0L);
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch added = new CountDownLatch(1);
+        when(productRepository.streamKeys()).thenAnswer(invocation -> {
+            scanning.countDown();
+            assertTrue(added.await(10, TimeUnit.SECONDS));
+            return Stream.empty();
+        });
+
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> writes = writer.submit(() -> {
+                LongStream.rangeClosed(1, 500).forEach(id ->
+                    filter.onProductChanged(event(ProductEventType.CREATED, product(id, "Product " + id))));
+                assertDoesNotThrow(() -> scanning.await(10, TimeUnit.SECONDS));
+                LongStream.rangeClosed(501, 1000).forEach(id ->
+                    filter.onProductChanged(event(ProductEventType.CREATED, product(id, "Product " + id))));
+                added.countDown();
+            });
+            filter.rebuild();
+            writes.get(10, TimeUnit.SECONDS);
+        } finally {
+            writer.shutdown();
+        }
+
+        // Adds before the rebuild started went to a filter that was never built; the rest were replayed
+        for (long id = 501; id <= 1000; id++) {
+            assertTrue(filter.mightContainId(id), "id " + id);
+        }
+    }
+
+    @Test
+    void disabled_NeverBuildsAndLetsEverythingThrough() {
+        ProductExistenceFilter disabled = new ProductExistenceFilter(productRepository, new ProductShards(1),
+            transactionManager, new SimpleMeterRegistry(), false, 10_000, 0.01);
+
+        disabled.run(null);
+        disabled.onProductChanged(event(ProductEventType.CREATED, product(1L, "Ignored")));
+
+        assertTrue(disabled.mightContainId(99L));
+        verifyNoInteractions(productRepository);
+    }
+
+    private static ProductChangedEvent event(ProductEventType type, Product product) {
+        return new ProductChangedEvent(1L, type, product.getId(), product);
+    }
+
+    private static Product product(Long id, String name) {
+        return Product.builder().id(id).name(name).build();
+    }
+
+    private static ProductKey key(Long id, String name) {
+        return new ProductKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
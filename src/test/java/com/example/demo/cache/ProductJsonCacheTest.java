@@ -0,0 +1,107 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductJsonCacheTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private ProductJsonCache cache;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductJsonCache(objectMapper, true, DataSize.ofMegabytes(1));
+        product = product(LocalDateTime.of(2024, 1, 1, 10, 0));
+    }
+
+    @Test
+    void json_SameVersion_ReusesEncodedBytes() throws IOException {
+        byte[] first = cache.json(product);
+        byte[] second = cache.json(product(product.getUpdatedAt()));
+
+        assertSame(first, second);
+        assertArrayEquals(objectMapper.writeValueAsBytes(product), first);
+        assertEquals(0.5, cache.getHitRatio());
+        assertEquals(first.length, cache.getBytesHeld());
+    }
+
+    @Test
+    void json_NewerVersion_ReencodesAndReplacesEntry() {
+        byte[] stale = cache.json(product);
+        Product updated = product(product.getUpdatedAt().plusSeconds(1));
+        updated.setName("Renamed");
+
+        byte[] fresh = cache.json(updated);
+
+        assertNotSame(stale, fresh);
+        assertTrue(new String(fresh).contains("Renamed"));
+        assertEquals(fresh.length, cache.getBytesHeld());
+    }
+
+    @Test
+    void gzip_DecompressesToJson() throws IOException {
+        byte[] json = cache.json(product);
+        byte[] gzip = cache.gzip(product);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+        assertSame(gzip, cache.gzip(product));
+        assertEquals(json.length + gzip.length, cache.getBytesHeld());
+    }
+
+    @Test
+    void evict_ReleasesBytes() {
+        cache.gzip(product);
+
+        cache.evict(product.getId());
+
+        assertEquals(0, cache.getBytesHeld());
+    }
+
+    @Test
+    void json_OverMaxSize_EncodesWithoutStoring() {
+        cache = new ProductJsonCache(objectMapper, true, DataSize.ofBytes(10));
+
+        assertTrue(cache.json(product).length > 10);
+        assertEquals(0, cache.getBytesHeld());
+    }
+
+    @Test
+    void bindTo_RegistersSizeAndHitRatio() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.json(product);
+        cache.json(product);
+
+        assertEquals(cache.getBytesHeld(), registry.get("product.json.cache.size").gauge().value());
+        assertEquals(0.5, registry.get("product.json.cache.hit.ratio").gauge().value());
+        assertEquals(1.0, registry.get("product.json.cache.requests").tag("result", "hit").functionCounter().count());
+    }
+
+    private static Product product(LocalDateTime updatedAt) {
+        return Product.builder()
+            .id(1L)
+            .name("Test Product")
+            .description("d".repeat(1000))
+            .price(new BigDecimal("99.99"))
+            .stockQuantity(10)
+            .createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+            .updatedAt(updatedAt)
+            .build();
+    }
+}
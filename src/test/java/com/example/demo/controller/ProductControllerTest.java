@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.ProductJsonCache;
 import com.example.demo.model.Product;
+import com.example.demo.model.ProductField;
 import com.example.demo.service.ProductService;
 import com.example.demo.config.TestSecurityConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -18,20 +21,29 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductController.class)
 @ActiveProfiles("test")
-@Import(TestSecurityConfig.class)
+@Import({TestSecurityConfig.class, ProductJsonCache.class})
 class ProductControllerTest {
 
     @Autowired
@@ -85,6 +97,34 @@ class ProductControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser
+    void createProducts_Success() throws Exception {
+        when(productService.createProducts(anyList())).thenReturn(List.of(testProduct));
+
+        mockMvc.perform(post("/api/v1/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("products", List.of(testProduct)))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].id").value(testProduct.getId()))
+                .andExpect(jsonPath("$[0].name").value(testProduct.getName()));
+    }
+
+    @Test
+    @WithMockUser
+    void createProducts_InvalidElement_ReturnsBadRequest() throws Exception {
+        Product invalidProduct = Product.builder()
+                .name("")
+                .build();
+
+        mockMvc.perform(post("/api/v1/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("products", List.of(testProduct, invalidProduct)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['products[1].name']").exists());
+        verify(productService, never()).createProducts(anyList());
+    }
+
     @Test
     @WithMockUser
     void getProductById_Success() throws Exception {
@@ -96,6 +136,42 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.name").value(testProduct.getName()));
     }
 
+    @Test
+    @WithMockUser
+    void getProductById_AcceptsGzip_ReturnsCompressedJson() throws Exception {
+        when(productService.getProductById(1L)).thenReturn(Optional.of(testProduct));
+
+        byte[] body = mockMvc.perform(get("/api/v1/products/1")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(testProduct.getName(), objectMapper.readValue(json, Product.class).getName());
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void getProductById_GzipWeights_FollowQValues() throws Exception {
+        when(productService.getProductById(1L)).thenReturn(Optional.of(testProduct));
+
+        for (String acceptEncoding : List.of("gzip;q=0.5", "GZIP; q=1.0", "*", "br, *;q=0.1")) {
+            mockMvc.perform(get("/api/v1/products/1").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        }
+        for (String acceptEncoding : List.of("gzip;q=0", "gzip;q=0.0", "gzip; q=0.000", "identity",
+                "*;q=0", "gzip;q=0, *", "*, gzip;q=0", "gzip;q=abc")) {
+            mockMvc.perform(get("/api/v1/products/1").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(jsonPath("$.name").value(testProduct.getName()));
+        }
+    }
+
     @Test
     @WithMockUser
     void getProductById_NotFound_ReturnsNotFound() throws Exception {
@@ -116,6 +192,86 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$[0].name").value(testProduct.getName()));
     }
 
+    @Test
+    @WithMockUser
+    void getAllProducts_WithFields_ReturnsOnlyThoseFields() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("name", "Test Product");
+        when(productService.getProductFields(ProductField.parse("name"), null, null)).thenReturn(Arrays.asList(row));
+
+        mockMvc.perform(get("/api/v1/products").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Test Product"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllProducts_UnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("fields", "name,secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void getProductById_WithFields_ReturnsOnlyThoseFields() throws Exception {
+        when(productService.getProductFieldsById(1L, ProductField.parse("price")))
+                .thenReturn(Optional.of(Map.of("id", 1L, "price", testProduct.getPrice())));
+
+        mockMvc.perform(get("/api/v1/products/1").param("fields", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(testProduct.getPrice().doubleValue()))
+                .andExpect(jsonPath("$.name").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void searchProducts_WithFields_AppliesPriceFilter() throws Exception {
+        when(productService.getProductFields(ProductField.parse("name"), new BigDecimal("100.00"), null))
+                .thenReturn(Arrays.asList(Map.of("id", 1L, "name", "Test Product")));
+
+        mockMvc.perform(get("/api/v1/products/search")
+                .param("maxPrice", "100.00")
+                .param("lowStockThreshold", "5")
+                .param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Test Product"));
+    }
+
+    @Test
+    @WithMockUser
+    void getProductsByIds_Success() throws Exception {
+        when(productService.getProductsByIds(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(testProduct));
+
+        mockMvc.perform(get("/api/v1/products").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(testProduct.getId()));
+    }
+
+    @Test
+    @WithMockUser
+    void lookupProducts_Success() throws Exception {
+        when(productService.getProductsByIds(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(testProduct));
+
+        mockMvc.perform(post("/api/v1/products/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(testProduct.getId()));
+    }
+
+    @Test
+    @WithMockUser
+    void getProductsByIds_TooMany_ReturnsBadRequest() throws Exception {
+        when(productService.getProductsByIds(any())).thenThrow(new IllegalArgumentException("too many"));
+
+        mockMvc.perform(get("/api/v1/products").param("ids", "1,2"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser
     void searchProducts_ByPrice_Success() throws Exception {
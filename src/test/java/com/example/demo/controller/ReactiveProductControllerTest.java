@@ -0,0 +1,329 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.ReactiveSecurityConfig;
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+import com.example.demo.model.ProductEventType;
+import com.example.demo.outbox.ReactiveProductOutbox;
+import com.example.demo.repository.ReactiveProductRepository;
+import com.example.demo.service.impl.ReactiveProductServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link ReactiveProductController} over the real {@link ReactiveProductServiceImpl},
+ * with the repository and outbox mocked. Outbox mocks only succeed when subscribed inside
+ * a transaction, so a 2xx response also proves the outbox row was written in it.
+ */
+@WebFluxTest(controllers = ReactiveProductController.class, properties = "spring.webflux.base-path=")
+@ActiveProfiles({"test", "reactive"})
+@Import({ReactiveSecurityConfig.class, ReactiveProductServiceImpl.class})
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private RecordingTransactionManager transactionManager;
+
+    @MockBean
+    private ReactiveProductRepository productRepository;
+
+    @MockBean
+    private ReactiveProductOutbox productOutbox;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager.reset();
+        testProduct = Product.builder()
+                .id(1L)
+                .name("Test Product")
+                .description("Test Description")
+                .price(new BigDecimal("99.99"))
+                .stockQuantity(10)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @WithMockUser
+    void createProduct_Success() {
+        ProductChangedEvent event = new ProductChangedEvent(7L, ProductEventType.CREATED, 1L, testProduct);
+        when(productRepository.insert(any(Product.class))).thenReturn(Mono.just(testProduct));
+        when(productOutbox.productCreated(testProduct)).thenReturn(inTransaction(event));
+
+        webTestClient.post().uri("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(testProduct)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.name").isEqualTo("Test Product");
+
+        assertEquals(1, transactionManager.commits.get());
+        verify(productOutbox).publish(event);
+    }
+
+    @Test
+    @WithMockUser
+    void createProduct_InvalidInput_ReturnsBadRequest() {
+        webTestClient.post().uri("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Product.builder().name("").build())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(productRepository, never()).insert(any(Product.class));
+    }
+
+    @Test
+    @WithMockUser
+    void createProduct_DuplicateName_ReturnsConflictAndRollsBack() {
+        when(productRepository.insert(any(Product.class))).thenReturn(Mono.error(duplicateNameViolation()));
+
+        webTestClient.post().uri("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(testProduct)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Product with name Test Product already exists");
+
+        assertEquals(0, transactionManager.commits.get());
+        assertEquals(1, transactionManager.rollbacks.get());
+        verify(productOutbox, never()).productCreated(any(Product.class));
+        verify(productOutbox, never()).publish(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    @WithMockUser
+    void getProductById_Success() {
+        when(productRepository.findById(1L)).thenReturn(Mono.just(testProduct));
+
+        webTestClient.get().uri("/api/v1/products/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Test Product");
+    }
+
+    @Test
+    @WithMockUser
+    void getProductById_NotFound_Returns404() {
+        when(productRepository.findById(1L)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/v1/products/1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @WithMockUser
+    void getProductsByIds_TooMany_ReturnsBadRequest() {
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        webTestClient.post().uri("/api/v1/products/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ids)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @WithMockUser
+    void getLowStockProducts_StreamsRepositoryRows() {
+        when(productRepository.findLowStockProducts(10)).thenReturn(Flux.just(testProduct));
+
+        webTestClient.get().uri("/api/v1/products/search?lowStockThreshold=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1);
+    }
+
+    @Test
+    @WithMockUser
+    void updateProduct_Success() {
+        Product changes = Product.builder()
+                .name("Updated Product")
+                .description("Updated Description")
+                .price(new BigDecimal("199.99"))
+                .stockQuantity(20)
+                .build();
+        when(productRepository.updatePartially(eq(1L), any(Product.class), any(LocalDateTime.class)))
+                .thenReturn(Mono.just(testProduct));
+        when(productOutbox.productUpdated(eq(testProduct), any(Product.class))).thenAnswer(invocation ->
+                inTransaction(new ProductChangedEvent(8L, ProductEventType.UPDATED, 1L,
+                        invocation.getArgument(1), invocation.getArgument(0))));
+
+        webTestClient.put().uri("/api/v1/products/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(changes)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.name").isEqualTo("Updated Product")
+                .jsonPath("$.stockQuantity").isEqualTo(20);
+
+        assertEquals(1, transactionManager.commits.get());
+        verify(productOutbox).publish(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    @WithMockUser
+    void updateProduct_NotFound_Returns404() {
+        when(productRepository.updatePartially(eq(1L), any(Product.class), any(LocalDateTime.class)))
+                .thenReturn(Mono.empty());
+
+        webTestClient.put().uri("/api/v1/products/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(testProduct)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        assertEquals(1, transactionManager.rollbacks.get());
+        verify(productOutbox, never()).productUpdated(any(Product.class), any(Product.class));
+        verify(productOutbox, never()).publish(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    @WithMockUser
+    void updateProduct_DuplicateName_ReturnsConflict() {
+        when(productRepository.updatePartially(eq(1L), any(Product.class), any(LocalDateTime.class)))
+                .thenReturn(Mono.error(duplicateNameViolation()));
+
+        webTestClient.put().uri("/api/v1/products/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(testProduct)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        verify(productOutbox, never()).publish(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    @WithMockUser
+    void deleteProduct_Success() {
+        ProductChangedEvent event = new ProductChangedEvent(9L, ProductEventType.DELETED, 1L, null);
+        when(productRepository.deleteById(1L)).thenReturn(Mono.just(1L));
+        when(productOutbox.productDeleted(1L)).thenReturn(inTransaction(event));
+
+        webTestClient.delete().uri("/api/v1/products/1")
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertEquals(1, transactionManager.commits.get());
+        verify(productOutbox).publish(event);
+    }
+
+    @Test
+    @WithMockUser
+    void deleteProduct_NotFound_Returns404() {
+        when(productRepository.deleteById(1L)).thenReturn(Mono.just(0L));
+
+        webTestClient.delete().uri("/api/v1/products/1")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        verify(productOutbox, never()).productDeleted(anyLong());
+        verify(productOutbox, never()).publish(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void getProductById_Unauthenticated_Returns401() {
+        webTestClient.get().uri("/api/v1/products/1")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    // Fails with NoTransactionException unless subscribed inside the TransactionalOperator
+    private static Mono<ProductChangedEvent> inTransaction(ProductChangedEvent event) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isActualTransactionActive)
+                .map(synchronization -> event)
+                .switchIfEmpty(Mono.error(new IllegalStateException("No active transaction")));
+    }
+
+    private static DataIntegrityViolationException duplicateNameViolation() {
+        return new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UK_PRODUCTS_NAME_INDEX_C ON PUBLIC.PRODUCTS(NAME)\"");
+    }
+
+    @TestConfiguration
+    static class TransactionConfig {
+        @Bean
+        RecordingTransactionManager transactionManager() {
+            return new RecordingTransactionManager();
+        }
+    }
+
+    /** Counts commits and rollbacks without a database behind them. */
+    static class RecordingTransactionManager extends AbstractReactiveTransactionManager {
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+
+        void reset() {
+            commits.set(0);
+            rollbacks.set(0);
+        }
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                     TransactionDefinition definition) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                                      GenericReactiveTransaction status) {
+            return Mono.fromRunnable(commits::incrementAndGet);
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                                        GenericReactiveTransaction status) {
+            return Mono.fromRunnable(rollbacks::incrementAndGet);
+        }
+    }
+}
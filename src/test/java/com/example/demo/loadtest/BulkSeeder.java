@@ -0,0 +1,88 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+/**
+ * Loads a synthetic catalog through {@code POST /products/bulk}: chunks of
+ * products are sent by a few concurrent requests, each inserted in one
+ * transaction with batched JDBC inserts. Returns the created ids indexed by
+ * catalog position.
+ */
+final class BulkSeeder {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String authorization;
+
+    BulkSeeder(HttpClient client, ObjectMapper objectMapper, String baseUrl, String authorization) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.authorization = authorization;
+    }
+
+    long[] seed(CatalogGenerator generator, int count, int concurrency) throws Exception {
+        long[] ids = new long[count];
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int start = 0; start < count; start += CHUNK_SIZE) {
+                int from = start;
+                int to = Math.min(count, start + CHUNK_SIZE);
+                chunks.add(executor.submit(() -> {
+                    insert(generator, from, to, ids);
+                    return null;
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            executor.shutdownNow();
+        }
+        return ids;
+    }
+
+    private void insert(CatalogGenerator generator, int from, int to, long[] ids)
+            throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("products",
+            LongStream.range(from, to).mapToObj(generator::product).toList()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bulk"))
+            .header("Authorization", authorization)
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofMinutes(2))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Bulk insert of products " + from + ".." + to + " failed with "
+                + response.statusCode() + ": " + response.body());
+        }
+        // Created products come back in request order
+        JsonNode created = objectMapper.readTree(response.body());
+        for (int i = 0; i < created.size(); i++) {
+            ids[from + i] = created.get(i).get("id").asLong();
+        }
+    }
+}
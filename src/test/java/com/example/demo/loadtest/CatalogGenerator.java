@@ -0,0 +1,83 @@
+package com.example.demo.loadtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic catalog: product {@code i} always gets the same
+ * name, description, price and stock for a given seed, so runs are
+ * reproducible and a product can be regenerated for an update without
+ * keeping the catalog in memory.
+ * <p>
+ * Prices are log-uniform between 0.99 and 2,500 (many cheap products, a long
+ * tail of expensive ones), descriptions vary in length, and stock is
+ * exponentially distributed with a few percent of products sold out. Names
+ * carry a per-run tag so repeated runs against one database don't collide.
+ */
+final class CatalogGenerator {
+
+    private static final String[] ADJECTIVES = {
+        "Classic", "Compact", "Deluxe", "Ergonomic", "Everyday", "Heavy-Duty", "Lightweight", "Modern",
+        "Portable", "Premium", "Rugged", "Sleek", "Smart", "Sturdy", "Vintage", "Wireless"
+    };
+    private static final String[] MATERIALS = {
+        "Aluminum", "Bamboo", "Canvas", "Ceramic", "Cotton", "Glass", "Leather", "Oak", "Plastic", "Steel", "Wool"
+    };
+    private static final String[] NOUNS = {
+        "Backpack", "Bottle", "Chair", "Clock", "Desk", "Headphones", "Jacket", "Keyboard", "Kettle", "Lamp",
+        "Mug", "Notebook", "Pan", "Pillow", "Scarf", "Shelf", "Speaker", "Tent", "Towel", "Umbrella", "Wallet"
+    };
+    private static final String[] FEATURES = {
+        "Built to last with reinforced seams.", "Easy to clean.", "Ships in recyclable packaging.",
+        "Backed by a two-year warranty.", "Designed for daily use.", "Available while stocks last.",
+        "Fits most standard sizes.", "Tested for durability.", "A customer favourite.", "Assembled by hand."
+    };
+    private static final double MIN_PRICE = 0.99;
+    private static final double MAX_PRICE = 2_500;
+
+    private final long seed;
+    private final String tag;
+
+    CatalogGenerator(long seed, String tag) {
+        this.seed = seed;
+        this.tag = tag;
+    }
+
+    SyntheticProduct product(long index) {
+        return product(index, 0);
+    }
+
+    /**
+     * Product {@code index} after {@code revision} updates: the name and
+     * description stay, price and stock change.
+     */
+    SyntheticProduct product(long index, int revision) {
+        SplittableRandom random = random(index, 0);
+        String name = pick(random, ADJECTIVES) + " " + pick(random, MATERIALS) + " " + pick(random, NOUNS)
+            + " " + tag + "-" + Long.toString(index, 36);
+        StringBuilder description = new StringBuilder("The ").append(name).append('.');
+        for (int sentences = random.nextInt(1, 8); sentences > 0; sentences--) {
+            description.append(' ').append(pick(random, FEATURES));
+        }
+
+        SplittableRandom variable = random(index, revision);
+        double price = MIN_PRICE * Math.pow(MAX_PRICE / MIN_PRICE, variable.nextDouble());
+        int stock = variable.nextDouble() < 0.03 ? 0 : (int) (-Math.log(1 - variable.nextDouble()) * 80);
+        return new SyntheticProduct(name, description.toString(),
+            BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP), stock);
+    }
+
+    private SplittableRandom random(long index, int revision) {
+        return new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L) ^ ((long) revision << 48));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Request body of a create or full update.
+     */
+    record SyntheticProduct(String name, String description, BigDecimal price, int stockQuantity) {}
+}
@@ -0,0 +1,131 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: seeds a synthetic catalog through the bulk endpoint,
+ * then drives a mixed read/write/search workload over HTTP at a fixed arrival
+ * rate and gates the result against a stored baseline. Fails if more than
+ * {@code loadtest.max-error-rate} of requests fail, or if total or
+ * per-operation p99 or share of offered requests completed regress beyond the
+ * tolerances.
+ * <p>
+ * Run with {@code scripts/run-load-test.sh} or {@code mvn -Pload-test test}. By
+ * default the application is started in-process on an empty in-memory
+ * database; set {@code loadtest.base-url} (e.g. {@code http://localhost:8080/api/v1/products})
+ * to target an instance that is already running. Record a baseline with
+ * {@code -Dloadtest.update-baseline=true}; without one, or if it was recorded
+ * with a different catalog size, rate, mix, target (in-process or
+ * {@code loadtest.base-url}) or password encoding, the test fails.
+ */
+@Tag("loadtest")
+class CatalogLoadTest {
+
+    private static final int PRODUCTS = Integer.getInteger("loadtest.products", 100_000);
+    private static final double RATE = Double.parseDouble(System.getProperty("loadtest.rate", "500"));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 20));
+    private static final String MIX = System.getProperty("loadtest.mix",
+        "get=60,multiget=10,price=5,lowstock=5,create=10,update=10");
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("loadtest.max-in-flight", 1000);
+    private static final int SEED_CONCURRENCY = Integer.getInteger("loadtest.seed-concurrency", 4);
+    private static final long SEED = Long.getLong("loadtest.seed", 42);
+    private static final String BASE_URL = System.getProperty("loadtest.base-url");
+    private static final String USER = System.getProperty("loadtest.user", "admin");
+    private static final String PASSWORD = System.getProperty("loadtest.password", "admin");
+    // How an already running instance checks passwords; the in-process one always uses {noop}
+    private static final String PASSWORD_ENCODING = System.getProperty("loadtest.password-encoding", "bcrypt");
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.001"));
+    private static final double P99_TOLERANCE = Double.parseDouble(System.getProperty("loadtest.p99-tolerance", "0.25"));
+    private static final double COMPLETION_TOLERANCE =
+        Double.parseDouble(System.getProperty("loadtest.completion-tolerance", "0.001"));
+    private static final Path BASELINE = Paths.get(System.getProperty("loadtest.baseline",
+        "src/test/resources/loadtest/baseline.json"));
+    private static final Path REPORT = Paths.get("target", "load-test", "report.json");
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void mixedWorkloadMeetsBaseline() throws Exception {
+        try (ConfigurableApplicationContext context = BASE_URL == null ? start() : null) {
+            String baseUrl = context == null ? BASE_URL : baseUrl(context);
+            String authorization = Workload.authorization(USER, PASSWORD);
+            // Names are tagged per run so seeding an already populated instance doesn't collide
+            CatalogGenerator generator = new CatalogGenerator(SEED, Long.toString(System.currentTimeMillis(), 36));
+
+            long seedStart = System.nanoTime();
+            long[] ids = new BulkSeeder(client, objectMapper, baseUrl, authorization)
+                .seed(generator, PRODUCTS, SEED_CONCURRENCY);
+            double seedSeconds = (System.nanoTime() - seedStart) / 1e9;
+            System.out.printf("%nSeeded %,d products in %.1f s (%,.0f products/s)%n",
+                PRODUCTS, seedSeconds, PRODUCTS / seedSeconds);
+
+            Workload workload = new Workload(baseUrl, USER, PASSWORD, generator, ids,
+                Workload.parseMix(MIX), objectMapper);
+            OpenLoadDriver driver = new OpenLoadDriver(client);
+            driver.run(workload, RATE, WARMUP, MAX_IN_FLIGHT);
+            String target = context == null ? "external" : "embedded";
+            String passwordEncoding = context == null ? PASSWORD_ENCODING : "noop";
+            LoadTestReport report = LoadTestReport.of(PRODUCTS, RATE, MIX, target, passwordEncoding,
+                DURATION.toSeconds(), driver.run(workload, RATE, DURATION, MAX_IN_FLIGHT));
+            report.write(REPORT);
+            System.out.println(report);
+
+            assertTrue(report.total().errorRate() <= MAX_ERROR_RATE,
+                () -> String.format("%.2f%% of requests failed", report.total().errorRate() * 100));
+            if (Boolean.getBoolean("loadtest.update-baseline")) {
+                report.write(BASELINE);
+                System.out.println("Baseline written to " + BASELINE);
+                return;
+            }
+
+            assertTrue(Files.exists(BASELINE),
+                "No baseline at " + BASELINE + "; record one with -Dloadtest.update-baseline=true");
+            LoadTestReport baseline = LoadTestReport.read(BASELINE);
+            assertTrue(report.comparableTo(baseline), "Baseline at " + BASELINE + " was recorded with a different "
+                + "catalog size, rate, mix, target or password encoding; record a new one with "
+                + "-Dloadtest.update-baseline=true");
+            List<String> regressions = report.regressionsAgainst(baseline, P99_TOLERANCE, COMPLETION_TOLERANCE);
+            assertTrue(regressions.isEmpty(),
+                () -> "Regressed against " + BASELINE + ":\n  " + String.join("\n  ", regressions));
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DemoApplication.class)
+            .properties(
+                "server.port=0",
+                // BCrypt checks of the configured password would dominate request latency
+                "spring.security.user.password={noop}" + PASSWORD,
+                "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.url=r2dbc:h2:mem:///loadtest;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "logging.level.com.example.demo=INFO",
+                // Size the Bloom filters for the seeded catalog plus the creates of the run
+                "product.existence-filter.expected-insertions=" + 2 * PRODUCTS)
+            .run();
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        return "http://localhost:" + port + "/api/v1/products";
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Latencies and failures of one kind of request during a measured phase.
+ * Every sample is kept, so percentiles are exact.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized void error() {
+        errors++;
+    }
+
+    synchronized LoadTestReport.Stats stats(double scheduledSeconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return LoadTestReport.Stats.of(sorted, errors, scheduledSeconds);
+    }
+
+    static LatencyRecorder merge(Collection<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (LatencyRecorder recorder : recorders) {
+            synchronized (recorder) {
+                for (int i = 0; i < recorder.count; i++) {
+                    merged.record(recorder.samples[i]);
+                }
+                merged.errors += recorder.errors;
+            }
+        }
+        return merged;
+    }
+}
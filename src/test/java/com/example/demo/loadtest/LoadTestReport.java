@@ -0,0 +1,143 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Result of a measured phase, per operation and in total. Written as JSON to
+ * {@code target/load-test/report.json}; a report saved as the baseline is the
+ * reference later runs are gated against.
+ */
+record LoadTestReport(int products, double rate, String mix, String target, String passwordEncoding,
+                      long durationSeconds, double drainSeconds, Map<String, Stats> operations, Stats total) {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    static LoadTestReport of(int products, double rate, String mix, String target, String passwordEncoding,
+                             long durationSeconds, OpenLoadDriver.Phase phase) {
+        Map<String, Stats> operations = new LinkedHashMap<>();
+        phase.recorders().forEach((operation, recorder) -> {
+            Stats stats = recorder.stats(phase.scheduledSeconds());
+            if (stats.requests() + stats.errors() > 0) {
+                operations.put(operation.name().toLowerCase(Locale.ROOT), stats);
+            }
+        });
+        // Throughput is over the schedule only; a long drain shows up in drainSeconds and the latencies
+        Stats total = LatencyRecorder.merge(phase.recorders().values()).stats(phase.scheduledSeconds());
+        return new LoadTestReport(products, rate, mix, target, passwordEncoding, durationSeconds,
+            phase.drainSeconds(), operations, total);
+    }
+
+    static LoadTestReport read(Path path) throws IOException {
+        return JSON.readValue(path.toFile(), LoadTestReport.class);
+    }
+
+    void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        JSON.writeValue(path.toFile(), this);
+    }
+
+    /**
+     * Whether {@code baseline} was recorded with the same catalog size, rate and mix,
+     * against the same kind of target checking passwords the same way (a BCrypt check
+     * on every request dominates latency).
+     */
+    boolean comparableTo(LoadTestReport baseline) {
+        return products == baseline.products && rate == baseline.rate && mix.equals(baseline.mix)
+            && target.equals(baseline.target) && passwordEncoding.equals(baseline.passwordEncoding);
+    }
+
+    /**
+     * Operations whose p99 grew by more than {@code p99Tolerance}, or whose share of
+     * offered requests completed fell by more than {@code completionTolerance}
+     * (an absolute difference), relative to {@code baseline}. Throughput is not
+     * compared: at a fixed arrival rate it follows the offered rate, not capacity.
+     */
+    List<String> regressionsAgainst(LoadTestReport baseline, double p99Tolerance, double completionTolerance) {
+        List<String> regressions = new ArrayList<>();
+        compare("total", total, baseline.total, p99Tolerance, completionTolerance, regressions);
+        baseline.operations.forEach((operation, reference) -> {
+            Stats current = operations.get(operation);
+            if (current != null) {
+                compare(operation, current, reference, p99Tolerance, completionTolerance, regressions);
+            }
+        });
+        return regressions;
+    }
+
+    private static void compare(String operation, Stats current, Stats reference, double p99Tolerance,
+                                double completionTolerance, List<String> regressions) {
+        if (current.p99Millis() > reference.p99Millis() * (1 + p99Tolerance)) {
+            regressions.add(String.format("%s: p99 %.2f ms, baseline %.2f ms", operation,
+                current.p99Millis(), reference.p99Millis()));
+        }
+        if (current.completedRatio() < reference.completedRatio() - completionTolerance) {
+            regressions.add(String.format("%s: %.2f%% of offered requests completed, baseline %.2f%%", operation,
+                current.completedRatio() * 100, reference.completedRatio() * 100));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format("%,d products, %,.0f req/s offered (%s), %s target "
+            + "with %s passwords, %.1f s drain after the schedule%n",
+            products, rate, mix, target, passwordEncoding, drainSeconds));
+        operations.forEach((operation, stats) -> text.append(String.format("  %-9s %s%n", operation, stats)));
+        return text.append(String.format("  %-9s %s", "total", total)).toString();
+    }
+
+    record Stats(long requests, long errors, double throughput,
+                 double p50Millis, double p90Millis, double p99Millis, double p999Millis, double maxMillis) {
+
+        static Stats of(long[] sorted, long errors, double scheduledSeconds) {
+            int count = sorted.length;
+            return new Stats(
+                count,
+                errors,
+                count / scheduledSeconds,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.90),
+                percentile(sorted, 0.99),
+                percentile(sorted, 0.999),
+                count == 0 ? 0 : sorted[count - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        double errorRate() {
+            long attempts = requests + errors;
+            return attempts == 0 ? 0 : (double) errors / attempts;
+        }
+
+        /**
+         * Successful requests out of all offered, including those the driver dropped
+         * because too many were outstanding.
+         */
+        double completedRatio() {
+            long offered = requests + errors;
+            return offered == 0 ? 1 : (double) requests / offered;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d requests (%d errors), %,.0f req/s, "
+                    + "p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms",
+                requests, errors, throughput, p50Millis, p90Millis, p99Millis, p999Millis, maxMillis);
+        }
+    }
+}
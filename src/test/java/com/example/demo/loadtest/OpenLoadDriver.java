@@ -0,0 +1,81 @@
+package com.example.demo.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests start on a fixed schedule at the target
+ * rate whether or not earlier ones have finished, the way independent users
+ * arrive. Latency is measured from the scheduled start, so a stall in the
+ * application shows up in the percentiles of every request it delayed instead
+ * of silently lowering the request rate. If more than {@code maxInFlight}
+ * requests are outstanding, new ones are counted as errors rather than queued
+ * in the client.
+ */
+final class OpenLoadDriver {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient client;
+
+    OpenLoadDriver(HttpClient client) {
+        this.client = client;
+    }
+
+    Phase run(Workload workload, double rate, Duration duration, int maxInFlight)
+            throws InterruptedException, TimeoutException {
+        Map<Workload.Operation, LatencyRecorder> recorders = new EnumMap<>(Workload.Operation.class);
+        for (Workload.Operation operation : Workload.Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        Phaser outstanding = new Phaser(1);
+
+        long interval = (long) (1e9 / rate);
+        long start = System.nanoTime();
+        for (long scheduled = start; scheduled - start < duration.toNanos(); scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Workload.Operation operation = workload.next();
+            LatencyRecorder recorder = recorders.get(operation);
+            if (inFlight.get() >= maxInFlight) {
+                recorder.error();
+                continue;
+            }
+
+            long intended = scheduled;
+            inFlight.incrementAndGet();
+            outstanding.register();
+            client.sendAsync(workload.request(operation), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    if (failure != null || response.statusCode() >= 400) {
+                        recorder.error();
+                    } else {
+                        recorder.record(System.nanoTime() - intended);
+                    }
+                    inFlight.decrementAndGet();
+                    outstanding.arriveAndDeregister();
+                });
+        }
+        long scheduleEnd = System.nanoTime();
+        outstanding.awaitAdvanceInterruptibly(outstanding.arrive(), DRAIN_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        return new Phase(recorders, (scheduleEnd - start) / 1e9, (System.nanoTime() - scheduleEnd) / 1e9);
+    }
+
+    /**
+     * @param scheduledSeconds time over which requests were started
+     * @param drainSeconds     time spent afterwards waiting for outstanding requests
+     */
+    record Phase(Map<Workload.Operation, LatencyRecorder> recorders, double scheduledSeconds,
+                 double drainSeconds) {}
+}
@@ -0,0 +1,147 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * The request mix of a load test. Each operation is picked with the weight
+ * given in the mix, e.g. {@code get=60,multiget=10,price=5,lowstock=5,create=10,update=10}.
+ * Reads are skewed towards a small set of popular products, like real catalog
+ * traffic; creates add new products and updates rewrite price and stock of
+ * seeded ones.
+ */
+final class Workload {
+
+    enum Operation {
+        GET, MULTIGET, PRICE, LOWSTOCK, CREATE, UPDATE
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int MULTIGET_SIZE = 20;
+
+    private final String baseUrl;
+    private final String authorization;
+    private final CatalogGenerator generator;
+    private final long[] ids;
+    private final ObjectMapper objectMapper;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final AtomicLong nextIndex;
+    private final AtomicInteger revision = new AtomicInteger();
+
+    Workload(String baseUrl, String user, String password, CatalogGenerator generator, long[] ids,
+             Map<Operation, Integer> mix, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.authorization = authorization(user, password);
+        this.generator = generator;
+        this.ids = ids;
+        this.objectMapper = objectMapper;
+        this.nextIndex = new AtomicLong(ids.length);
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Workload mix has no weight");
+        }
+    }
+
+    /**
+     * Parses {@code name=weight} pairs separated by commas; omitted operations are not run.
+     */
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected name=weight in workload mix, got '" + entry + "'");
+            }
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    Operation next() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case GET -> get(baseUrl + "/" + ids[popularIndex()]);
+            case MULTIGET -> get(baseUrl + "?ids=" + LongStream.range(0, MULTIGET_SIZE)
+                .mapToObj(i -> String.valueOf(ids[popularIndex()]))
+                .collect(Collectors.joining(",")));
+            // Narrow filters keep result sets in the low thousands, as a paged UI would
+            case PRICE -> get(baseUrl + "/search?fields=id,name,price&maxPrice="
+                + BigDecimal.valueOf(random.nextInt(100, 151), 2));
+            case LOWSTOCK -> get(baseUrl + "/search?fields=id,name,stockQuantity&lowStockThreshold="
+                + random.nextInt(0, 3));
+            case CREATE -> send(baseUrl, "POST", generator.product(nextIndex.getAndIncrement()));
+            case UPDATE -> {
+                int index = random.nextInt(ids.length);
+                yield send(baseUrl + "/" + ids[index], "PUT", generator.product(index, revision.incrementAndGet()));
+            }
+        };
+    }
+
+    /**
+     * A quarter of the catalog receives about 80% of the reads.
+     */
+    private int popularIndex() {
+        return (int) (ids.length * Math.pow(ThreadLocalRandom.current().nextDouble(), 6));
+    }
+
+    private HttpRequest get(String url) {
+        return builder(url).GET().build();
+    }
+
+    private HttpRequest send(String url, String method, Object body) {
+        return builder(url)
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(json(body)))
+            .build();
+    }
+
+    private HttpRequest.Builder builder(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .header("Authorization", authorization)
+            .timeout(TIMEOUT);
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String authorization(String user, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.ProductEventType;
+import com.example.demo.model.ProductOutboxEvent;
+import com.example.demo.repository.ProductOutboxRepository;
+import com.example.demo.shard.ProductShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductOutboxRelayTest {
+
+    @Mock
+    private ProductOutboxRepository outboxRepository;
+
+    @Mock
+    private ProductEventSink sink;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private ProductOutboxRelay relay;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T10:00:00Z"), ZoneId.of("UTC"));
+        now = LocalDateTime.now(clock);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new ProductOutboxRelay(outboxRepository, new ProductShards(1), sink, transactionManager,
+            meterRegistry, clock, 2, 10, Duration.ofDays(7));
+    }
+
+    @Test
+    void relay_DeliversBatchesInOrderAndMarksThemPublished() {
+        ProductOutboxEvent first = event(1L, now.minusSeconds(2));
+        ProductOutboxEvent second = event(2L, now.minusSeconds(1));
+        ProductOutboxEvent third = event(3L, now);
+        when(outboxRepository.findByPublishedAtIsNullOrderByIdAsc(any(Pageable.class)))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of(third));
+
+        relay.relay();
+
+        verify(sink).publish(List.of(first, second));
+        verify(sink).publish(List.of(third));
+        verify(outboxRepository).markPublished(List.of(1L, 2L), now);
+        verify(outboxRepository).markPublished(List.of(3L), now);
+        assertEquals(3.0, meterRegistry.get("outbox.events.published").counter().count());
+    }
+
+    @Test
+    void relay_SinkFailure_LeavesBatchPending() {
+        ProductOutboxEvent first = event(1L, now.minusSeconds(5));
+        when(outboxRepository.findByPublishedAtIsNullOrderByIdAsc(any(Pageable.class)))
+            .thenReturn(List.of(first));
+        doThrow(new IllegalStateException("sink down")).when(sink).publish(anyList());
+        when(outboxRepository.countByPublishedAtIsNull()).thenReturn(1L);
+        when(outboxRepository.findFirstByPublishedAtIsNullOrderByIdAsc()).thenReturn(Optional.of(first));
+
+        relay.relay();
+
+        verify(outboxRepository, never()).markPublished(anyList(), eq(now));
+        assertEquals(1.0, meterRegistry.get("outbox.batches.failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("outbox.events.pending").gauge().value());
+        assertEquals(5000.0, meterRegistry.get("outbox.oldest.pending.age").gauge().value());
+    }
+
+    private ProductOutboxEvent event(Long id, LocalDateTime createdAt) {
+        return ProductOutboxEvent.builder()
+            .id(id)
+            .productId(id)
+            .eventType(ProductEventType.CREATED)
+            .payload("{}")
+            .createdAt(createdAt)
+            .build();
+    }
+}
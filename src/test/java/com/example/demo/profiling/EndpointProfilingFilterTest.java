@@ -0,0 +1,65 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class EndpointProfilingFilterTest {
+
+    @TempDir
+    Path directory;
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new CatalogController())
+        .addFilters(new EndpointProfilingFilter())
+        .build();
+
+    @Test
+    void requests_AreRecordedUnderTheirRouteTemplate() throws Exception {
+        Path file = directory.resolve("endpoints.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EndpointEvent.class);
+            recording.start();
+            mockMvc.perform(get("/catalog/42")).andExpect(status().isOk());
+            mockMvc.perform(get("/catalog/7")).andExpect(status().isOk());
+            mockMvc.perform(get("/elsewhere")).andExpect(status().isNotFound());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals(EndpointEvent.NAME))
+            .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+            .toList();
+        assertEquals(List.of("GET /catalog/{id}", "GET /catalog/{id}", "GET (unmapped)"),
+            events.stream().map(event -> event.getString("endpoint")).toList());
+        assertEquals(List.of(200, 200, 404), events.stream().map(event -> event.getInt("status")).toList());
+    }
+
+    @Test
+    void requests_WithoutRecording_PassThrough() throws Exception {
+        mockMvc.perform(get("/catalog/42")).andExpect(status().isOk());
+    }
+
+    @RestController
+    static class CatalogController {
+        @GetMapping("/catalog/{id}")
+        public String product(@PathVariable Long id) {
+            return "product " + id;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.profiling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingRecorderTest {
+
+    private static final String ENDPOINT = "GET /api/v1/products/{id}";
+
+    @TempDir
+    Path directory;
+
+    private ProfilingRecorder recorder;
+
+    // Keeps the burned results observable, so the loop isn't optimized away
+    private static volatile long sink;
+
+    @AfterEach
+    void tearDown() {
+        if (recorder != null) {
+            recorder.destroy();
+        }
+    }
+
+    @Test
+    void session_IsBoundedAndSummarizedPerEndpoint() throws Exception {
+        recorder = recorder(false);
+
+        ProfilingRecorder.RecordingStatus started = recorder.start(Duration.ofHours(1), "default");
+        assertEquals("RUNNING", started.state());
+        assertEquals(Duration.ofMinutes(1), started.maxDuration());
+        assertThrows(IllegalStateException.class, () -> recorder.start(null, null));
+
+        request(200, 1L, true);
+        request(200, 2L, false);
+        request(500, 3L, false);
+        assertEquals("STOPPED", recorder.stop().state());
+        assertNull(recorder.stop());
+
+        Path file = recorder.dump(ProfilingRecorder.SESSION);
+        assertTrue(Files.size(file) > 0);
+        RecordingSummary.Summary summary = RecordingSummary.summarize(file, 5);
+        RecordingSummary.EndpointProfile endpoint = summary.endpoints().stream()
+            .filter(profile -> profile.endpoint().equals(ENDPOINT))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(3, endpoint.requests());
+        assertEquals(1, endpoint.serverErrors());
+        RecordingSummary.ServiceProfile service = summary.services().stream()
+            .filter(profile -> profile.operation().equals("ProductServiceImpl.getProductById"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(3, service.calls());
+        assertEquals(1, service.cacheHits());
+        assertEquals(3, service.rows());
+    }
+
+    @Test
+    void session_ChargesCpuAndAllocationSamplesToTheRunningEndpoint() throws Exception {
+        recorder = recorder(false);
+        recorder.start(Duration.ofMinutes(1), "profile");
+
+        EndpointEvent request = new EndpointEvent();
+        request.begin();
+        sink = burn(Duration.ofSeconds(1));
+        request.endpoint = ENDPOINT;
+        request.status = 200;
+        request.commit();
+        recorder.stop();
+
+        RecordingSummary.EndpointProfile endpoint = RecordingSummary.summarize(
+                recorder.dump(ProfilingRecorder.SESSION), 5)
+            .endpoints().stream()
+            .filter(profile -> profile.endpoint().equals(ENDPOINT))
+            .findFirst()
+            .orElseThrow();
+        String burnFrame = ProfilingRecorderTest.class.getName() + ".burn";
+        assertTrue(endpoint.cpuSamples() > 0);
+        assertTrue(endpoint.cpu().stream().anyMatch(frame -> frame.frame().equals(burnFrame)),
+            () -> "CPU frames: " + endpoint.cpu());
+        assertTrue(endpoint.allocatedBytes() > 0);
+        assertTrue(endpoint.allocation().stream().anyMatch(frame -> frame.frame().equals(burnFrame)),
+            () -> "Allocation frames: " + endpoint.allocation());
+    }
+
+    @Test
+    void start_UnknownSettings_Throws() {
+        recorder = recorder(false);
+
+        assertThrows(IllegalArgumentException.class, () -> recorder.start(null, "verbose"));
+        assertNull(recorder.status().session());
+    }
+
+    @Test
+    void dump_NoRecording_ReturnsNull() {
+        recorder = recorder(false);
+
+        assertNull(recorder.dump(ProfilingRecorder.SESSION));
+        assertNull(recorder.dump(ProfilingRecorder.CONTINUOUS));
+        assertNull(recorder.dump("other"));
+    }
+
+    @Test
+    void continuous_IsDumpedWithoutStopping() throws Exception {
+        recorder = recorder(true);
+        recorder.startContinuousRecording();
+
+        Path file = recorder.dump(ProfilingRecorder.CONTINUOUS);
+
+        assertTrue(Files.size(file) > 0);
+        assertEquals("RUNNING", recorder.status().continuous().state());
+    }
+
+    private ProfilingRecorder recorder(boolean continuous) {
+        return new ProfilingRecorder(directory.toString(), Duration.ofMinutes(1), DataSize.ofMegabytes(64),
+            Duration.ZERO, continuous, Duration.ofMinutes(1), DataSize.ofMegabytes(16));
+    }
+
+    /**
+     * Spins and allocates on the calling thread, so both kinds of sample land in this frame.
+     */
+    private static long burn(Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long checksum = 0;
+        while (System.nanoTime() < deadline) {
+            long[] block = new long[1024];
+            for (int i = 0; i < block.length; i++) {
+                block[i] = checksum * 31 + i;
+                checksum += block[i] % 7;
+            }
+        }
+        return checksum;
+    }
+
+    private static void request(int status, long productId, boolean cacheHit) {
+        EndpointEvent request = new EndpointEvent();
+        request.begin();
+        ServiceCallEvent call = new ServiceCallEvent();
+        call.begin();
+        call.operation = "ProductServiceImpl.getProductById";
+        call.productId = productId;
+        call.rows = 1;
+        call.cacheHit = cacheHit;
+        call.commit();
+        request.endpoint = ENDPOINT;
+        request.status = status;
+        request.commit();
+    }
+}
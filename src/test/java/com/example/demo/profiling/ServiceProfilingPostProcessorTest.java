@@ -0,0 +1,98 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceProfilingPostProcessorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void proxiedService_RecordsCallsAndCacheHits() throws Exception {
+        ProxyFactory proxyFactory = new ProxyFactory(new CatalogService());
+        proxyFactory.setProxyTargetClass(true);
+        // Stands in for @Cacheable: id 1 is answered without calling the target
+        proxyFactory.addAdvice((MethodInterceptor) invocation ->
+            Long.valueOf(1L).equals(invocation.getArguments()[0]) ? List.of("cached") : invocation.proceed());
+        CatalogService service = (CatalogService) new ServiceProfilingPostProcessor()
+            .postProcessAfterInitialization(proxyFactory.getProxy(), "catalogService");
+
+        Path file = directory.resolve("calls.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ServiceCallEvent.class);
+            recording.start();
+            assertEquals(List.of("cached"), service.find(1L));
+            assertEquals(List.of("a", "b"), service.find(2L));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals(ServiceCallEvent.NAME))
+            .toList();
+        assertEquals(2, events.size());
+        RecordedEvent hit = events.stream().filter(event -> event.getLong("productId") == 1).findFirst().orElseThrow();
+        RecordedEvent miss = events.stream().filter(event -> event.getLong("productId") == 2).findFirst().orElseThrow();
+        assertEquals("CatalogService.find", hit.getString("operation"));
+        assertTrue(hit.getBoolean("cacheHit"));
+        assertEquals(1, hit.getInt("rows"));
+        assertFalse(miss.getBoolean("cacheHit"));
+        assertEquals(2, miss.getInt("rows"));
+    }
+
+    @Test
+    void nonServiceBeans_AreLeftAlone() {
+        Object bean = new Object();
+
+        assertSame(bean, new ServiceProfilingPostProcessor().postProcessAfterInitialization(bean, "bean"));
+    }
+
+    @Test
+    void reactiveServices_AreLeftAlone() {
+        Object bean = new ReactiveCatalogService();
+
+        // Timing the call would only measure assembling the pipeline
+        assertSame(bean, new ServiceProfilingPostProcessor().postProcessAfterInitialization(bean, "reactiveService"));
+    }
+
+    @Test
+    void rows_CountsCollectionsAndOptionals() {
+        assertEquals(3, ServiceProfilingPostProcessor.rows(List.of(1, 2, 3)));
+        assertEquals(0, ServiceProfilingPostProcessor.rows(Optional.empty()));
+        assertEquals(1, ServiceProfilingPostProcessor.rows(Optional.of("product")));
+        assertEquals(0, ServiceProfilingPostProcessor.rows(null));
+    }
+
+    @Service
+    static class CatalogService {
+        public List<String> find(Long id) {
+            return List.of("a", "b");
+        }
+    }
+
+    @Service
+    static class ReactiveCatalogService {
+        public Mono<String> find(Long id) {
+            return Mono.just("a");
+        }
+
+        public Flux<String> findAll() {
+            return Flux.just("a", "b");
+        }
+    }
+}
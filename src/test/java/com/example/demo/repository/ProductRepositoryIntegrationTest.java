@@ -1,16 +1,21 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Product;
+import com.example.demo.model.ProductField;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -90,6 +95,13 @@ class ProductRepositoryIntegrationTest {
         assertFalse(productRepository.existsByName("Non-existent Product"));
     }
 
+    @Test
+    void findExistingNames_ReturnsOnlyStoredNames() {
+        List<String> result = productRepository.findExistingNames(List.of("Test Product", "Non-existent Product"));
+
+        assertEquals(List.of("Test Product"), result);
+    }
+
     @Test
     void saveAndRetrieve_Success() {
         Product newProduct = Product.builder()
@@ -130,4 +142,113 @@ class ProductRepositoryIntegrationTest {
         productRepository.deleteById(productOpt.get().getId());
         assertFalse(productRepository.existsById(productOpt.get().getId()));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void saveDuplicateName_ViolatesUniqueConstraint() {
+        Product duplicate = Product.builder()
+                .name("Test Product")
+                .description("Duplicate Description")
+                .price(new BigDecimal("9.99"))
+                .stockQuantity(1)
+                .build();
+
+        assertThrows(DataIntegrityViolationException.class, () -> productRepository.saveAndFlush(duplicate));
+    }
+
+    @Test
+    void updatePartially_UpdatesOnlySuppliedFields_ReturnsPreviousRow() {
+        Product changes = Product.builder()
+                .price(new BigDecimal("79.99"))
+                .build();
+        LocalDateTime updatedAt = LocalDateTime.of(2030, 1, 2, 3, 4, 5, 123_456_000);
+
+        Product previous = productRepository.updatePartially(testProduct.getId(), changes, updatedAt).orElseThrow();
+        assertEquals(testProduct.getPrice(), previous.getPrice());
+        assertEquals("Test Product", previous.getName());
+
+        Product updatedProduct = productRepository.findById(testProduct.getId()).orElseThrow();
+        assertEquals(new BigDecimal("79.99"), updatedProduct.getPrice());
+        assertEquals(updatedAt, updatedProduct.getUpdatedAt());
+        assertEquals("Test Product", updatedProduct.getName());
+        assertEquals("Test Description", updatedProduct.getDescription());
+        assertEquals(10, updatedProduct.getStockQuantity());
+    }
+
+    @Test
+    void updatePartially_NotFound_ReturnsEmpty() {
+        Product changes = Product.builder()
+                .stockQuantity(1)
+                .build();
+
+        assertTrue(productRepository.updatePartially(-1L, changes, LocalDateTime.now()).isEmpty());
+    }
+
+    @Test
+    void deleteProductById_ReturnsAffectedRows() {
+        assertEquals(1, productRepository.deleteProductById(testProduct.getId()));
+        assertEquals(0, productRepository.deleteProductById(testProduct.getId()));
+        assertFalse(productRepository.existsById(testProduct.getId()));
+    }
+
+    @Test
+    void findFields_SelectsOnlyRequestedColumnsInIdOrder() {
+        Set<ProductField> fields = ProductField.parse("name,price");
+
+        List<Map<String, Object>> result = productRepository.findFields(fields, null, null);
+
+        assertEquals(2, result.size());
+        assertEquals(List.of("id", "name", "price"), List.copyOf(result.get(0).keySet()));
+        assertEquals(testProduct.getId(), result.get(0).get("id"));
+        assertEquals("Test Product", result.get(0).get("name"));
+        assertEquals("Another Product", result.get(1).get("name"));
+    }
+
+    @Test
+    void findFields_AppliesFilters() {
+        Set<ProductField> fields = ProductField.parse("stockQuantity");
+
+        List<Map<String, Object>> result = productRepository.findFields(fields, null, 5);
+
+        assertEquals(1, result.size());
+        assertEquals(anotherProduct.getId(), result.get(0).get("id"));
+        assertEquals(5, result.get(0).get("stockQuantity"));
+    }
+
+    @Test
+    void findFieldsById_Success() {
+        Optional<Map<String, Object>> result = productRepository.findFieldsById(testProduct.getId(),
+            ProductField.parse("description"));
+
+        assertTrue(result.isPresent());
+        assertEquals(Map.of("id", testProduct.getId(), "description", "Test Description"), result.get());
+        assertTrue(productRepository.findFieldsById(-1L, ProductField.parse("name")).isEmpty());
+    }
+
+    @Test
+    void summarizeInventory_TotalsWholeCatalog() {
+        InventorySummary summary = productRepository.summarizeInventory();
+
+        assertEquals(2L, summary.getProductCount());
+        assertEquals(15L, summary.getTotalUnits());
+        assertEquals(0, new BigDecimal("1749.85").compareTo(summary.getInventoryValue()));
+        assertEquals(0L, summary.getOutOfStockCount());
+    }
+
+    @Test
+    void groupByPriceAndStock_OneRowPerDistinctValue() {
+        productRepository.save(Product.builder()
+                .name("Third Product")
+                .price(new BigDecimal("99.99"))
+                .stockQuantity(5)
+                .build());
+
+        Map<BigDecimal, Long> unitsByPrice = new TreeMap<>();
+        productRepository.groupByPrice().forEach(group -> unitsByPrice.put(group.getPrice(), group.getUnits()));
+        assertEquals(Map.of(new BigDecimal("99.99"), 15L, new BigDecimal("149.99"), 5L), unitsByPrice);
+
+        List<StockGroup> byStock = productRepository.groupByStockQuantity();
+        StockGroup five = byStock.stream().filter(group -> group.getStockQuantity() == 5).findFirst().orElseThrow();
+        assertEquals(2L, five.getProducts());
+        assertEquals(0, new BigDecimal("1249.90").compareTo(five.getInventoryValue()));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataR2dbcTest
+@ActiveProfiles("test")
+@Import(ReactiveProductRepository.class)
+class ReactiveProductRepositoryTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("CREATE TABLE IF NOT EXISTS products ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "name VARCHAR(255) NOT NULL, "
+                + "description VARCHAR(1000), "
+                + "price NUMERIC(10, 2) NOT NULL, "
+                + "stock_quantity INTEGER NOT NULL, "
+                + "created_at TIMESTAMP, "
+                + "updated_at TIMESTAMP)")
+            .then()
+            .then(databaseClient.sql("DELETE FROM products").then())
+            .block();
+
+        testProduct = productRepository.insert(product("Test Product", "99.99", 10)).block();
+        productRepository.insert(product("Another Product", "149.99", 5)).block();
+    }
+
+    @Test
+    void insert_AssignsId() {
+        assertNotNull(testProduct.getId());
+        assertNotNull(testProduct.getCreatedAt());
+    }
+
+    @Test
+    void findById_Success() {
+        StepVerifier.create(productRepository.findById(testProduct.getId()))
+            .assertNext(product -> {
+                assertEquals("Test Product", product.getName());
+                assertEquals(0, new BigDecimal("99.99").compareTo(product.getPrice()));
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void findById_NotFound_ReturnsEmpty() {
+        StepVerifier.create(productRepository.findById(-1L))
+            .verifyComplete();
+    }
+
+    @Test
+    void findAll_StreamsWithBackpressure() {
+        StepVerifier.create(productRepository.findAll(), 1)
+            .expectNextCount(1)
+            .thenRequest(1)
+            .expectNextCount(1)
+            .verifyComplete();
+    }
+
+    @Test
+    void findByPriceLessThanEqual_Success() {
+        StepVerifier.create(productRepository.findByPriceLessThanEqual(new BigDecimal("100.00")))
+            .assertNext(product -> assertEquals("Test Product", product.getName()))
+            .verifyComplete();
+    }
+
+    @Test
+    void findLowStockProducts_Success() {
+        StepVerifier.create(productRepository.findLowStockProducts(5))
+            .assertNext(product -> assertEquals("Another Product", product.getName()))
+            .verifyComplete();
+    }
+
+    @Test
+    void existsByName_Success() {
+        StepVerifier.create(productRepository.existsByName("Test Product"))
+            .expectNext(true)
+            .verifyComplete();
+        StepVerifier.create(productRepository.existsByName("Non-existent Product"))
+            .expectNext(false)
+            .verifyComplete();
+    }
+
+    @Test
+    void updatePartially_UpdatesOnlySuppliedFields() {
+        Product changes = Product.builder()
+                .stockQuantity(20)
+                .build();
+
+        StepVerifier.create(productRepository.updatePartially(testProduct.getId(), changes, LocalDateTime.now()))
+            .assertNext(previous -> assertEquals(testProduct.getStockQuantity(), previous.getStockQuantity()))
+            .verifyComplete();
+        StepVerifier.create(productRepository.findById(testProduct.getId()))
+            .assertNext(product -> {
+                assertEquals(20, product.getStockQuantity());
+                assertEquals("Test Product", product.getName());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void deleteById_Success() {
+        StepVerifier.create(productRepository.deleteById(testProduct.getId()))
+            .expectNext(1L)
+            .verifyComplete();
+        StepVerifier.create(productRepository.deleteById(testProduct.getId()))
+            .expectNext(0L)
+            .verifyComplete();
+    }
+
+    private Product product(String name, String price, int stockQuantity) {
+        return Product.builder()
+                .name(name)
+                .description(name + " Description")
+                .price(new BigDecimal(price))
+                .stockQuantity(stockQuantity)
+                .build();
+    }
+}
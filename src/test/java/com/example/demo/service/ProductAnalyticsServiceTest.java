@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import com.example.demo.model.InventoryValuation;
+import com.example.demo.model.PriceBucket;
+import com.example.demo.model.Product;
+import com.example.demo.model.StockBucket;
+import com.example.demo.repository.InventorySummary;
+import com.example.demo.repository.ProductOutboxRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.impl.ProductAnalyticsServiceImpl;
+import com.example.demo.shard.ProductShards;
+import com.example.demo.snapshot.CatalogSnapshot;
+import com.example.demo.snapshot.ProductReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductAnalyticsServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductOutboxRepository outboxRepository;
+
+    @Mock
+    private ProductReadModel productReadModel;
+
+    @TempDir
+    Path directory;
+
+    private ProductAnalyticsServiceImpl analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        analyticsService = new ProductAnalyticsServiceImpl(productRepository, outboxRepository, productReadModel,
+            new ProductShards(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getValuation_ReadModelReady_SumsSnapshotAndChangesExactly() throws IOException {
+        // 1..1000 priced 0.10 each with stock 3, then product 2 repriced and product 3 deleted
+        CatalogSnapshot snapshot = snapshot(LongStream.rangeClosed(1, 1000)
+            .mapToObj(id -> product(id, "0.10", 3)).toList());
+        readModel(snapshot, Map.of(2L, product(2L, "1000000.01", 1)), Set.of(3L));
+
+        InventoryValuation valuation = analyticsService.getValuation();
+
+        assertEquals(999, valuation.productCount());
+        assertEquals(998 * 3 + 1, valuation.totalUnits());
+        assertEquals(new BigDecimal("1000299.41"), valuation.inventoryValue());
+        assertEquals(0, valuation.outOfStockCount());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getPriceHistogram_ReadModelReady_BucketsByWidth() throws IOException {
+        CatalogSnapshot snapshot = snapshot(List.of(
+            product(1L, "4.99", 1), product(2L, "5.00", 2), product(3L, "9.99", 3), product(4L, "25.50", 4)));
+        readModel(snapshot, Map.of(), Set.of());
+
+        List<PriceBucket> buckets = analyticsService.getPriceHistogram(new BigDecimal("5"));
+
+        assertEquals(List.of(
+            new PriceBucket(BigDecimal.ZERO, new BigDecimal("5"), 1, 1),
+            new PriceBucket(new BigDecimal("5"), new BigDecimal("10"), 2, 5),
+            new PriceBucket(new BigDecimal("25"), new BigDecimal("30"), 1, 4)), buckets);
+    }
+
+    @Test
+    void getStockLevels_ReadModelReady_UsesInclusiveUpperBounds() throws IOException {
+        CatalogSnapshot snapshot = snapshot(List.of(
+            product(1L, "2.00", 0), product(2L, "2.00", 10), product(3L, "2.00", 11), product(4L, "2.00", 500)));
+        readModel(snapshot, Map.of(), Set.of());
+
+        List<StockBucket> buckets = analyticsService.getStockLevels(new int[] {0, 10, 100});
+
+        assertEquals(List.of(
+            new StockBucket(null, 0, 1, new BigDecimal("0.00")),
+            new StockBucket(1, 10, 1, new BigDecimal("20.00")),
+            new StockBucket(11, 100, 1, new BigDecimal("22.00")),
+            new StockBucket(101, null, 1, new BigDecimal("1000.00"))), buckets);
+    }
+
+    @Test
+    void getValuation_ReadModelNotReady_PushesDownAndCachesUntilCatalogChanges() {
+        InventorySummary summary = mock(InventorySummary.class);
+        when(summary.getProductCount()).thenReturn(2L);
+        when(summary.getTotalUnits()).thenReturn(15L);
+        when(summary.getInventoryValue()).thenReturn(new BigDecimal("1749.85"));
+        when(summary.getOutOfStockCount()).thenReturn(0L);
+        when(productRepository.summarizeInventory()).thenReturn(summary);
+        when(productRepository.count()).thenReturn(2L);
+        when(productRepository.findLastUpdatedAt()).thenReturn(NOW);
+        when(outboxRepository.findLastEventId()).thenReturn(7L, 7L, 8L);
+
+        InventoryValuation first = analyticsService.getValuation();
+        InventoryValuation second = analyticsService.getValuation();
+        analyticsService.getValuation();
+
+        assertEquals(new InventoryValuation(2, 15, new BigDecimal("1749.85"), 0), first);
+        assertSame(first, second);
+        verify(productRepository, times(2)).summarizeInventory();
+    }
+
+    @Test
+    void getValuation_ReadModelVersionUnchanged_ReusesResult() throws IOException {
+        readModel(snapshot(List.of(product(1L, "1.00", 1))), Map.of(), Set.of());
+
+        analyticsService.getValuation();
+        analyticsService.getValuation();
+
+        verify(productReadModel, times(1)).view();
+    }
+
+    @Test
+    void invalidArguments_Throw() {
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getPriceHistogram(BigDecimal.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getStockLevels(new int[] {10, 5}));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getStockLevels(new int[0]));
+    }
+
+    private void readModel(CatalogSnapshot snapshot, Map<Long, Product> changed, Set<Long> deleted) {
+        when(productReadModel.isReady()).thenReturn(true);
+        lenient().when(productReadModel.version()).thenReturn(1L);
+        when(productReadModel.view()).thenReturn(new ProductReadModel.View(snapshot, changed, deleted));
+    }
+
+    private CatalogSnapshot snapshot(List<Product> products) throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, products.iterator(), NOW);
+        return CatalogSnapshot.open(file);
+    }
+
+    private static Product product(long id, String price, int stock) {
+        return Product.builder()
+            .id(id)
+            .name("Product " + id)
+            .price(new BigDecimal(price))
+            .stockQuantity(stock)
+            .createdAt(NOW)
+            .updatedAt(NOW)
+            .build();
+    }
+}
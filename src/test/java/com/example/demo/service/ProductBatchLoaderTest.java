@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.impl.ProductBatchLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBatchLoaderTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void load_ConcurrentLookups_ShareOneQuery() throws Exception {
+        ProductBatchLoader loader = new ProductBatchLoader(productRepository, new SimpleMeterRegistry(),
+            Duration.ofSeconds(5), 3);
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product(1L), product(2L)));
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            List<CompletableFuture<Optional<Product>>> results = List.of(1L, 2L, 3L).stream()
+                .map(id -> CompletableFuture.supplyAsync(() -> loader.load(id), callers))
+                .toList();
+
+            // The third id fills the batch, so nobody waits out the five-second window
+            assertEquals(1L, results.get(0).get().orElseThrow().getId());
+            assertEquals(2L, results.get(1).get().orElseThrow().getId());
+            assertTrue(results.get(2).get().isEmpty());
+        } finally {
+            callers.shutdown();
+        }
+
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(productRepository).findAllById(ids.capture());
+        assertEquals(3, ids.getValue().size());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void load_FailedQuery_FailsEveryCaller() {
+        ProductBatchLoader loader = new ProductBatchLoader(productRepository, new SimpleMeterRegistry(),
+            Duration.ofMillis(1), 10);
+        when(productRepository.findAllById(anyCollection())).thenThrow(new IllegalStateException("down"));
+
+        assertThrows(IllegalStateException.class, () -> loader.load(1L));
+    }
+
+    @Test
+    void load_ZeroWindow_QueriesDirectly() {
+        ProductBatchLoader loader = new ProductBatchLoader(productRepository, new SimpleMeterRegistry(),
+            Duration.ZERO, 10);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L)));
+
+        assertTrue(loader.load(1L).isPresent());
+        verify(productRepository, never()).findAllById(anyCollection());
+    }
+
+    private static Product product(Long id) {
+        return Product.builder().id(id).name("Product " + id).build();
+    }
+}
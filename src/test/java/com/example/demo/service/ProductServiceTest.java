@@ -1,26 +1,45 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.ProductExistenceFilter;
+import com.example.demo.cache.ProductJsonCache;
+import com.example.demo.exception.DuplicateResourceException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Product;
+import com.example.demo.model.ProductField;
+import com.example.demo.outbox.ProductOutbox;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.impl.ProductBatchLoader;
 import com.example.demo.service.impl.ProductServiceImpl;
+import com.example.demo.snapshot.ProductReadModel;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +48,24 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductOutbox productOutbox;
+
+    @Mock
+    private ProductJsonCache productJsonCache;
+
+    @Mock
+    private ProductBatchLoader productBatchLoader;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ProductExistenceFilter productExistenceFilter;
+
+    @Mock
+    private ProductReadModel productReadModel;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -37,6 +74,9 @@ class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(productExistenceFilter.mightContainId(anyLong())).thenReturn(true);
+        lenient().when(productExistenceFilter.mightContainName(anyString())).thenReturn(true);
+
         testProduct = Product.builder()
                 .id(1L)
                 .name("Test Product")
@@ -61,48 +101,209 @@ class ProductServiceTest {
 
     @Test
     void createProduct_Success() {
-        when(productRepository.existsByName(anyString())).thenReturn(false);
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(testProduct);
 
         Product result = productService.createProduct(testProduct);
 
         assertNotNull(result);
         assertEquals(testProduct.getName(), result.getName());
         assertEquals(testProduct.getPrice(), result.getPrice());
-        verify(productRepository).existsByName(testProduct.getName());
-        verify(productRepository).save(testProduct);
+        verify(productRepository, never()).existsByName(anyString());
+        verify(productRepository).saveAndFlush(testProduct);
+        verify(productExistenceFilter).add(testProduct);
+        verify(productOutbox).productCreated(testProduct);
     }
 
     @Test
     void createProduct_DuplicateName_ThrowsException() {
-        when(productRepository.existsByName(anyString())).thenReturn(true);
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(duplicateNameViolation());
 
-        assertThrows(IllegalArgumentException.class, () -> 
+        assertThrows(DuplicateResourceException.class, () ->
             productService.createProduct(testProduct)
         );
-        verify(productRepository).existsByName(testProduct.getName());
-        verify(productRepository, never()).save(any(Product.class));
+        verify(productRepository, never()).existsByName(anyString());
+        verifyNoInteractions(productOutbox);
+    }
+
+    @Test
+    void createProduct_OtherIntegrityViolation_IsRethrown() {
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(
+            new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", new SQLException(), "other_constraint")));
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+            productService.createProduct(testProduct)
+        );
+        verifyNoInteractions(productOutbox);
+    }
+
+    @Test
+    void createProducts_SavesBatchAndRecordsEachProduct() {
+        when(productRepository.saveAllAndFlush(productList)).thenReturn(productList);
+
+        List<Product> result = productService.createProducts(productList);
+
+        assertEquals(productList, result);
+        for (Product product : productList) {
+            verify(productExistenceFilter).add(product);
+            verify(productOutbox).productCreated(product);
+        }
+    }
+
+    @Test
+    void createProducts_DuplicateNameInBatch_ThrowsException() {
+        Product copy = Product.builder().name(testProduct.getName()).build();
+
+        assertThrows(DuplicateResourceException.class, () ->
+            productService.createProducts(List.of(testProduct, copy))
+        );
+        verifyNoInteractions(productRepository, productOutbox);
+    }
+
+    @Test
+    void createProducts_ExistingName_ThrowsException() {
+        when(productRepository.saveAllAndFlush(productList)).thenThrow(duplicateNameViolation());
+
+        assertThrows(DuplicateResourceException.class, () ->
+            productService.createProducts(productList)
+        );
+        verifyNoInteractions(productOutbox);
+    }
+
+    @Test
+    void createProducts_TooMany_ThrowsException() {
+        List<Product> products = IntStream.rangeClosed(1, 1001)
+            .mapToObj(i -> Product.builder().name("Product " + i).build())
+            .toList();
+
+        assertThrows(IllegalArgumentException.class, () -> productService.createProducts(products));
+        verifyNoInteractions(productRepository);
     }
 
     @Test
     void getProductById_Success() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productBatchLoader.load(1L)).thenReturn(Optional.of(testProduct));
 
         Optional<Product> result = productService.getProductById(1L);
 
         assertTrue(result.isPresent());
         assertEquals(testProduct, result.get());
-        verify(productRepository).findById(1L);
+        verify(productBatchLoader).load(1L);
     }
 
     @Test
     void getProductById_NotFound_ReturnsEmpty() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productBatchLoader.load(1L)).thenReturn(Optional.empty());
 
         Optional<Product> result = productService.getProductById(1L);
 
         assertFalse(result.isPresent());
-        verify(productRepository).findById(1L);
+        verify(productBatchLoader).load(1L);
+        verify(productExistenceFilter).recordFalsePositive();
+    }
+
+    @Test
+    void getProductById_DefiniteMiss_SkipsQuery() {
+        when(productExistenceFilter.mightContainId(1L)).thenReturn(false);
+
+        assertTrue(productService.getProductById(1L).isEmpty());
+        verifyNoInteractions(productBatchLoader, productRepository);
+    }
+
+    @Test
+    void getProductById_ReadModelReady_SkipsDatabase() {
+        when(productReadModel.isReady()).thenReturn(true);
+        when(productReadModel.find(1L)).thenReturn(Optional.of(testProduct));
+
+        assertEquals(Optional.of(testProduct), productService.getProductById(1L));
+        verifyNoInteractions(productBatchLoader, productRepository);
+    }
+
+    @Test
+    void existsByName_DefiniteMiss_SkipsQuery() {
+        when(productExistenceFilter.mightContainName("Unknown")).thenReturn(false);
+
+        assertFalse(productService.existsByName("Unknown"));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void existsByName_MightExist_QueriesRepository() {
+        when(productRepository.existsByName("Test Product")).thenReturn(true);
+
+        assertTrue(productService.existsByName("Test Product"));
+    }
+
+    @Test
+    void getProductsByIds_ServesHitsAndFetchesMissesInOneQuery() {
+        Cache cache = new ConcurrentMapCache("products");
+        cache.put(1L, testProduct);
+        cache.put(3L, null);
+        when(cacheManager.getCache("products")).thenReturn(cache);
+        when(productRepository.findAllById(List.of(2L, 4L))).thenReturn(List.of(productList.get(1)));
+
+        List<Product> result = productService.getProductsByIds(List.of(2L, 1L, 3L, 4L, 2L));
+
+        assertEquals(List.of(productList.get(1), testProduct), result);
+        verify(productRepository).findAllById(List.of(2L, 4L));
+        verify(productRepository, never()).findById(anyLong());
+        assertEquals(productList.get(1), cache.get(2L).get());
+        assertNull(cache.get(4L));
+        verify(productExistenceFilter).recordFalsePositive();
+    }
+
+    @Test
+    void getProductsByIds_DefiniteMisses_AreNotQueried() {
+        when(cacheManager.getCache("products")).thenReturn(new ConcurrentMapCache("products"));
+        when(productExistenceFilter.mightContainId(9L)).thenReturn(false);
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(testProduct));
+
+        assertEquals(List.of(testProduct), productService.getProductsByIds(List.of(1L, 9L)));
+        verify(productRepository).findAllById(List.of(1L));
+    }
+
+    @Test
+    void getProductsByIds_ReadModelReady_SkipsDatabase() {
+        when(cacheManager.getCache("products")).thenReturn(new ConcurrentMapCache("products"));
+        when(productReadModel.isReady()).thenReturn(true);
+        when(productReadModel.find(1L)).thenReturn(Optional.of(testProduct));
+        when(productReadModel.find(5L)).thenReturn(Optional.empty());
+
+        assertEquals(List.of(testProduct), productService.getProductsByIds(List.of(5L, 1L)));
+        verifyNoInteractions(productRepository);
+        verify(productExistenceFilter).recordFalsePositive();
+    }
+
+    @Test
+    void getProductsByIds_TooManyIds_ThrowsException() {
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () ->
+            productService.getProductsByIds(ids)
+        );
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProductFieldsById_Cached_ProjectsInMemory() {
+        Cache cache = new ConcurrentMapCache("products");
+        cache.put(1L, testProduct);
+        when(cacheManager.getCache("products")).thenReturn(cache);
+
+        Optional<Map<String, Object>> result = productService.getProductFieldsById(1L, ProductField.parse("name"));
+
+        assertEquals(Optional.of(Map.of("id", 1L, "name", "Test Product")), result);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProductFieldsById_NotCached_QueriesProjection() {
+        Set<ProductField> fields = ProductField.parse("name");
+        when(cacheManager.getCache("products")).thenReturn(new ConcurrentMapCache("products"));
+        when(productRepository.findFieldsById(1L, fields)).thenReturn(Optional.of(Map.of("id", 1L, "name", "Test Product")));
+
+        assertTrue(productService.getProductFieldsById(1L, fields).isPresent());
+        verify(productRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -155,55 +356,83 @@ class ProductServiceTest {
 
     @Test
     void updateProduct_Success() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-
         Product updateData = Product.builder()
                 .name("Updated Product")
-                .price(new BigDecimal("199.99"))
+                .price(new BigDecimal("199.999"))
                 .build();
+        when(productRepository.updatePartially(eq(1L), eq(updateData), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(testProduct));
 
         Product result = productService.updateProduct(1L, updateData);
 
         assertNotNull(result);
+        assertEquals(1L, result.getId());
         assertEquals(updateData.getName(), result.getName());
-        assertEquals(updateData.getPrice(), result.getPrice());
+        // Rounded as the NUMERIC(10, 2) column stores it
+        assertEquals(new BigDecimal("200.00"), result.getPrice());
         assertEquals(testProduct.getDescription(), result.getDescription());
         assertEquals(testProduct.getStockQuantity(), result.getStockQuantity());
-        verify(productRepository).findById(1L);
-        verify(productRepository).save(any(Product.class));
+        assertEquals(testProduct.getCreatedAt(), result.getCreatedAt());
+        ArgumentCaptor<LocalDateTime> updatedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(productRepository).updatePartially(eq(1L), eq(updateData), updatedAt.capture());
+        assertEquals(updatedAt.getValue(), result.getUpdatedAt());
+        // The response is built from the previous row; nothing is read back
+        verify(productRepository, never()).findById(anyLong());
+        verify(productRepository, never()).save(any(Product.class));
+        verify(productOutbox).productUpdated(testProduct, result);
+        verify(productJsonCache).evict(1L);
     }
 
     @Test
     void updateProduct_NotFound_ThrowsException() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.updatePartially(eq(1L), eq(testProduct), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () ->
             productService.updateProduct(1L, testProduct)
         );
-        verify(productRepository).findById(1L);
-        verify(productRepository, never()).save(any(Product.class));
+        verify(productRepository).updatePartially(eq(1L), eq(testProduct), any(LocalDateTime.class));
+        verify(productRepository, never()).findById(anyLong());
+        verifyNoInteractions(productOutbox);
+    }
+
+    @Test
+    void updateProduct_DuplicateName_ThrowsException() {
+        when(productRepository.updatePartially(eq(1L), eq(testProduct), any(LocalDateTime.class)))
+                .thenThrow(duplicateNameViolation());
+
+        assertThrows(DuplicateResourceException.class, () ->
+            productService.updateProduct(1L, testProduct)
+        );
+        verifyNoInteractions(productOutbox);
     }
 
     @Test
     void deleteProduct_Success() {
-        when(productRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(productRepository).deleteById(1L);
+        when(productRepository.deleteProductById(1L)).thenReturn(1);
 
         productService.deleteProduct(1L);
 
-        verify(productRepository).existsById(1L);
-        verify(productRepository).deleteById(1L);
+        verify(productRepository).deleteProductById(1L);
+        verify(productRepository, never()).existsById(anyLong());
+        verify(productOutbox).productDeleted(1L);
+        verify(productJsonCache).evict(1L);
     }
 
     @Test
     void deleteProduct_NotFound_ThrowsException() {
-        when(productRepository.existsById(1L)).thenReturn(false);
+        when(productRepository.deleteProductById(1L)).thenReturn(0);
 
         assertThrows(ResourceNotFoundException.class, () ->
             productService.deleteProduct(1L)
         );
-        verify(productRepository).existsById(1L);
-        verify(productRepository, never()).deleteById(anyLong());
+        verify(productRepository).deleteProductById(1L);
+        verifyNoInteractions(productOutbox);
+    }
+
+    private static DataIntegrityViolationException duplicateNameViolation() {
+        return new DataIntegrityViolationException("duplicate",
+            new ConstraintViolationException("duplicate", new SQLException(),
+                "PUBLIC.UK_PRODUCTS_NAME_INDEX_A ON PUBLIC.PRODUCTS(NAME)"));
     }
 } 
\ No newline at end of file
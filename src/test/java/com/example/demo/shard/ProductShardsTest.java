@@ -0,0 +1,67 @@
+package com.example.demo.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductShardsTest {
+
+    @Test
+    void shardOf_FollowsIdModuloShardCount() {
+        ProductShards shards = new ProductShards(4);
+
+        assertEquals(0, shards.shardOf(8));
+        assertEquals(3, shards.shardOf(7));
+        assertEquals(1, shards.shardOf(-3));
+        assertTrue(shards.isSharded());
+    }
+
+    @Test
+    void scatter_RunsEveryShardInItsOwnContext() {
+        ProductShards shards = new ProductShards(3);
+
+        List<Integer> seen = shards.scatter(shard -> ShardContext.current() == shard ? shard : -1);
+
+        assertEquals(List.of(0, 1, 2), seen);
+        assertNull(ShardContext.current());
+        shards.destroy();
+    }
+
+    @Test
+    void scatter_SingleShard_RunsInlineWithoutRouting() {
+        ProductShards shards = new ProductShards(1);
+
+        assertEquals(List.of(true), shards.scatter(shard -> ShardContext.current() == null));
+        assertEquals("inline", shards.on(0, () -> ShardContext.current() == null ? "inline" : "routed"));
+    }
+
+    @Test
+    void scatter_Failure_IsRethrown() {
+        ProductShards shards = new ProductShards(2);
+
+        assertThrows(IllegalStateException.class, () -> shards.scatter(shard -> {
+            if (shard == 1) {
+                throw new IllegalStateException("shard down");
+            }
+            return shard;
+        }));
+        shards.destroy();
+    }
+
+    @Test
+    void mergeSorted_InterleavesSortedParts() {
+        List<Long> merged = ProductShards.mergeSorted(
+            List.of(List.of(3L, 6L, 9L), List.of(), List.of(1L, 4L, 7L, 10L), List.of(2L)),
+            Comparator.naturalOrder());
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 6L, 7L, 9L, 10L), merged);
+    }
+
+    @Test
+    void create_NoShards_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ProductShards(0));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.shard;
+
+import com.example.demo.exception.DuplicateResourceException;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "sharding.shards=3",
+    "sharding.url-pattern=jdbc:h2:mem:shardtest%d;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles({"test", "sharded"})
+class ShardingIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductShards productShards;
+
+    @Test
+    void productsArePartitionedByIdAndReadBackAcrossShards() {
+        List<Product> created = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            created.add(productService.createProduct(product("Sharded product " + i, "10.00", i)));
+        }
+
+        for (Product product : created) {
+            int shard = productShards.shardOf(product.getId());
+            assertEquals(productShards.shardForName(product.getName()), shard);
+            for (int other = 0; other < productShards.count(); other++) {
+                boolean stored = productShards.on(other, () -> productRepository.existsById(product.getId()));
+                assertEquals(other == shard, stored, "product " + product.getId() + " on shard " + other);
+            }
+            assertEquals(product.getName(), productService.getProductById(product.getId()).orElseThrow().getName());
+        }
+
+        List<Product> all = productService.getAllProducts();
+        assertEquals(all.stream().sorted(Comparator.comparing(Product::getId)).toList(), all);
+        assertEquals(12, all.stream().filter(p -> p.getName().startsWith("Sharded product")).count());
+        assertEquals(5, productService.getLowStockProducts(4).stream()
+            .filter(p -> p.getName().startsWith("Sharded product")).count());
+        assertTrue(productService.existsByName("Sharded product 7"));
+
+        Product renamed = productService.updateProduct(created.get(0).getId(),
+            Product.builder().name("Renamed product").build());
+        assertEquals("Renamed product", productService.getProductByName("Renamed product").orElseThrow().getName());
+        assertEquals(renamed.getId(), created.get(0).getId());
+
+        productService.deleteProduct(created.get(1).getId());
+        assertTrue(productService.getProductById(created.get(1).getId()).isEmpty());
+        assertEquals(11, productService.getProductsByIds(created.stream().map(Product::getId).toList()).size());
+    }
+
+    @Test
+    void duplicateNames_AreRejectedAcrossShards() {
+        productService.createProduct(product("Unique name", "5.00", 1));
+        Product other = productService.createProduct(product("Another unique name", "5.00", 1));
+
+        assertThrows(DuplicateResourceException.class, () ->
+            productService.createProduct(product("Unique name", "6.00", 2)));
+        assertThrows(DuplicateResourceException.class, () ->
+            productService.updateProduct(other.getId(), Product.builder().name("Unique name").build()));
+
+        // A renamed product keeps its shard, so its new name may hash to a different one
+        int owner = productShards.shardOf(other.getId());
+        String movedName = IntStream.range(0, 100)
+            .mapToObj(i -> "Renamed unique name " + i)
+            .filter(name -> productShards.shardForName(name) != owner)
+            .findFirst()
+            .orElseThrow();
+        productService.updateProduct(other.getId(), Product.builder().name(movedName).build());
+
+        assertThrows(DuplicateResourceException.class, () ->
+            productService.createProduct(product(movedName, "6.00", 2)));
+        assertThrows(DuplicateResourceException.class, () ->
+            productService.createProducts(List.of(product(movedName, "6.00", 2))));
+        assertEquals(1, productShards.scatter(shard -> productRepository.findByName(movedName).isPresent())
+            .stream().filter(Boolean::booleanValue).count());
+    }
+
+    @Test
+    void bulkCreate_WithDuplicateName_CreatesNothingOnAnyShard() {
+        productService.createProduct(product("Existing bulk name", "5.00", 1));
+        List<String> names = IntStream.range(0, 12).mapToObj(i -> "Bulk product " + i).toList();
+        List<Product> batch = new ArrayList<>(names.stream().map(name -> product(name, "7.00", 3)).toList());
+        batch.add(product("Existing bulk name", "7.00", 3));
+
+        assertThrows(DuplicateResourceException.class, () -> productService.createProducts(batch));
+        List<Product> repeated = new ArrayList<>(batch.subList(0, 12));
+        repeated.add(product("Bulk product 0", "7.00", 3));
+        assertThrows(DuplicateResourceException.class, () -> productService.createProducts(repeated));
+        assertTrue(names.stream().noneMatch(productService::existsByName));
+
+        // Nothing was written, so the corrected batch goes through
+        List<Product> created = productService.createProducts(
+            names.stream().map(name -> product(name, "7.00", 3)).toList());
+        assertEquals(12, created.size());
+        assertTrue(names.stream().allMatch(productService::existsByName));
+    }
+
+    private static Product product(String name, String price, int stock) {
+        return Product.builder()
+            .name(name)
+            .description("Description of " + name)
+            .price(new BigDecimal(price))
+            .stockQuantity(stock)
+            .build();
+    }
+}
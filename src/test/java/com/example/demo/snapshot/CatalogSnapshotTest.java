@@ -0,0 +1,123 @@
+package com.example.demo.snapshot;
+
+import com.example.demo.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private static final LocalDateTime TAKEN_AT = LocalDateTime.of(2024, 3, 1, 12, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_ThenOpen_FindsEveryProduct() throws IOException {
+        Product first = product(3L, "Keyboard", "Mechanical", new BigDecimal("49.90"), 12,
+            LocalDateTime.of(2024, 2, 1, 9, 30, 0, 123_456_000));
+        Product second = product(7L, "Mouse", null, null, 0, LocalDateTime.of(2024, 2, 3, 10, 0));
+        Path file = directory.resolve("catalog.snapshot");
+
+        CatalogSnapshot.write(file, List.of(first, second).iterator(), TAKEN_AT);
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertEquals(2, snapshot.size());
+        assertEquals(TAKEN_AT, snapshot.takenAt());
+        assertEquals(second.getUpdatedAt(), snapshot.highWaterMark());
+        assertSameProduct(first, snapshot.find(3L).orElseThrow());
+        Product mouse = snapshot.find(7L).orElseThrow();
+        assertNull(mouse.getDescription());
+        assertNull(mouse.getPrice());
+        assertEquals("Mouse", mouse.getName());
+        assertTrue(snapshot.find(5L).isEmpty());
+        assertEquals(-1, snapshot.indexOf(100L));
+        assertEquals(new BigDecimal("49.90"), snapshot.price(snapshot.indexOf(3L)));
+    }
+
+    @Test
+    void write_ReplacesExistingFileAndLeavesNoTemporaries() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, List.of(product(1L, "Old", null, BigDecimal.ONE, 1, TAKEN_AT)).iterator(), TAKEN_AT);
+
+        CatalogSnapshot.write(file, List.of(product(2L, "New", null, BigDecimal.TEN, 2, TAKEN_AT)).iterator(), TAKEN_AT);
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+        assertTrue(snapshot.find(1L).isEmpty());
+        assertEquals("New", snapshot.find(2L).orElseThrow().getName());
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void open_CorruptedRecord_Throws() throws IOException {
+        Path file = writeSample();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // Flip the stock quantity of the first record
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), 64 + 20);
+        }
+
+        assertThrows(IllegalStateException.class, () -> CatalogSnapshot.open(file));
+    }
+
+    @Test
+    void open_TruncatedFile_Throws() throws IOException {
+        Path file = writeSample();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        assertThrows(IllegalStateException.class, () -> CatalogSnapshot.open(file));
+    }
+
+    @Test
+    void open_NotASnapshot_Throws() throws IOException {
+        Path file = Files.writeString(directory.resolve("other.snapshot"), "not a snapshot");
+
+        assertThrows(IllegalStateException.class, () -> CatalogSnapshot.open(file));
+    }
+
+    private Path writeSample() throws IOException {
+        Path file = directory.resolve("sample.snapshot");
+        CatalogSnapshot.write(file, List.of(
+            product(1L, "Desk", "Oak", new BigDecimal("199.00"), 4, TAKEN_AT),
+            product(2L, "Chair", "Mesh", new BigDecimal("89.50"), 9, TAKEN_AT)
+        ).iterator(), TAKEN_AT);
+        return file;
+    }
+
+    private static void assertSameProduct(Product expected, Product actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getPrice(), actual.getPrice());
+        assertEquals(expected.getStockQuantity(), actual.getStockQuantity());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+    }
+
+    private static Product product(Long id, String name, String description, BigDecimal price,
+                                   int stock, LocalDateTime updatedAt) {
+        return Product.builder()
+            .id(id)
+            .name(name)
+            .description(description)
+            .price(price)
+            .stockQuantity(stock)
+            .createdAt(updatedAt.minusDays(1))
+            .updatedAt(updatedAt)
+            .build();
+    }
+}
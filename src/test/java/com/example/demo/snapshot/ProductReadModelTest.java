@@ -0,0 +1,223 @@
+package com.example.demo.snapshot;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+import com.example.demo.model.ProductEventType;
+import com.example.demo.repository.ProductOutboxRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.shard.ProductShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductReadModelTest {
+
+    private static final Duration SLACK = Duration.ofMinutes(1);
+    private static final Duration RETENTION = Duration.ofDays(7);
+    private static final LocalDateTime T0 = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductOutboxRepository outboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void run_WithoutSnapshot_WritesOneFromFullScan() throws IOException {
+        when(productRepository.streamAllOrderById()).thenReturn(Stream.of(product(1L, "Desk", T0)));
+
+        ProductReadModel model = model();
+        model.run(null);
+
+        assertTrue(model.isReady());
+        assertEquals("Desk", model.find(1L).orElseThrow().getName());
+        assertTrue(model.find(2L).isEmpty());
+        verify(productRepository, never()).findByUpdatedAtGreaterThan(any());
+    }
+
+    @Test
+    void find_OverlayTakesPrecedenceOverSnapshot() throws IOException {
+        ProductReadModel model = started(product(1L, "Desk", T0));
+        long version = model.version();
+
+        model.onProductChanged(updated(product(1L, "Standing desk", T0.plusMinutes(2))));
+        // An older change arriving late (e.g. through catch-up) doesn't win
+        model.onProductChanged(updated(product(1L, "Old desk", T0.plusMinutes(1))));
+
+        assertEquals("Standing desk", model.find(1L).orElseThrow().getName());
+        assertEquals(version + 1, model.version());
+    }
+
+    @Test
+    void find_DeletedProduct_StaysDeletedDespiteLateUpsert() throws IOException {
+        ProductReadModel model = started(product(1L, "Desk", T0));
+
+        model.onProductChanged(new ProductChangedEvent(2L, ProductEventType.DELETED, 1L, null));
+        model.onProductChanged(updated(product(1L, "Desk", T0.plusMinutes(5))));
+
+        assertTrue(model.find(1L).isEmpty());
+    }
+
+    @Test
+    void rollSnapshot_DropsOverlayEntriesItCovers() throws IOException {
+        ProductReadModel model = started(product(1L, "Desk", T0), product(2L, "Chair", T0));
+        model.onProductChanged(updated(product(1L, "Standing desk", T0.plusMinutes(1))));
+        model.onProductChanged(new ProductChangedEvent(3L, ProductEventType.DELETED, 2L, null));
+        model.onProductChanged(updated(product(3L, "Lamp", T0.plusMinutes(3))));
+        assertEquals(2, model.view().changed().size());
+        assertEquals(1, model.view().deleted().size());
+
+        // The new snapshot has the desk change and the deletion, but an older version of the lamp
+        when(productRepository.streamAllOrderById()).thenReturn(Stream.of(
+            product(1L, "Standing desk", T0.plusMinutes(1)),
+            product(3L, "Lamp (draft)", T0.plusMinutes(2))));
+        model.rollSnapshot();
+
+        ProductReadModel.View view = model.view();
+        assertEquals(List.of(3L), List.copyOf(view.changed().keySet()));
+        assertTrue(view.deleted().isEmpty());
+        assertEquals("Standing desk", model.find(1L).orElseThrow().getName());
+        assertTrue(model.find(2L).isEmpty());
+        assertEquals("Lamp", model.find(3L).orElseThrow().getName());
+    }
+
+    @Test
+    void rollSnapshot_DropsOverlayEntriesWhoseRowsWereDeletedBehindCatchUp() throws IOException {
+        ProductReadModel model = started(product(1L, "Desk", T0));
+        model.onProductChanged(updated(product(1L, "Standing desk", T0.plusMinutes(1))));
+        model.onProductChanged(updated(product(2L, "Chair", T0.plusMinutes(2))));
+        model.onProductChanged(updated(product(3L, "Lamp", LocalDateTime.now())));
+        // Both rows are deleted elsewhere and the deletions commit behind caughtUpTo, so catch-up misses them
+        when(productRepository.findByUpdatedAtGreaterThan(any())).thenReturn(List.of());
+        when(outboxRepository.findProductIdsByEventTypeSince(eq(ProductEventType.DELETED), any()))
+            .thenReturn(List.of());
+        model.refresh();
+        assertTrue(model.find(2L).isPresent());
+
+        when(productRepository.streamAllOrderById()).thenReturn(Stream.empty());
+        model.rollSnapshot();
+
+        assertTrue(model.find(1L).isEmpty());
+        assertTrue(model.find(2L).isEmpty());
+        // Changed within the slack: its insert may not have been visible to the scan yet
+        assertEquals("Lamp", model.find(3L).orElseThrow().getName());
+    }
+
+    @Test
+    void run_WithRecentSnapshot_CatchesUpFromSnapshotMinusSlack() throws IOException {
+        ProductReadModel first = started(product(1L, "Desk", T0), product(2L, "Chair", T0));
+        LocalDateTime takenAt = first.view().snapshot().takenAt();
+        LocalDateTime since = takenAt.minus(SLACK);
+        when(productRepository.findByUpdatedAtGreaterThan(any()))
+            .thenReturn(List.of(product(1L, "Standing desk", takenAt.plusSeconds(1))))
+            .thenReturn(List.of());
+        when(outboxRepository.findProductIdsByEventTypeSince(eq(ProductEventType.DELETED), any()))
+            .thenReturn(List.of(2L))
+            .thenReturn(List.of());
+
+        // A restart maps the existing file instead of scanning the table again
+        LocalDateTime beforeBoot = LocalDateTime.now();
+        ProductReadModel restarted = model();
+        restarted.run(null);
+
+        assertTrue(restarted.isReady());
+        assertEquals(takenAt, restarted.view().snapshot().takenAt());
+        assertEquals("Standing desk", restarted.find(1L).orElseThrow().getName());
+        assertTrue(restarted.find(2L).isEmpty());
+        verify(productRepository, times(1)).streamAllOrderById();
+
+        // Periodic refreshes continue from the previous catch-up, keeping the slack only for deletions
+        restarted.refresh();
+        ArgumentCaptor<LocalDateTime> windows = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(productRepository, times(2)).findByUpdatedAtGreaterThan(windows.capture());
+        assertEquals(since, windows.getAllValues().get(0));
+        assertFalse(windows.getAllValues().get(1).isBefore(beforeBoot));
+        verify(outboxRepository).findProductIdsByEventTypeSince(ProductEventType.DELETED, since);
+        verify(outboxRepository).findProductIdsByEventTypeSince(ProductEventType.DELETED,
+            windows.getAllValues().get(1).minus(SLACK));
+    }
+
+    @Test
+    void run_SnapshotOlderThanRetention_IsRebuilt() throws IOException {
+        LocalDateTime takenAt = LocalDateTime.now().minus(RETENTION).minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        Path stale = directory.resolve("catalog-" + takenAt.toInstant(ZoneOffset.UTC).toEpochMilli() + ".snapshot");
+        CatalogSnapshot.write(stale, List.of(product(1L, "Stale desk", takenAt)).iterator(), takenAt);
+        when(productRepository.streamAllOrderById()).thenReturn(Stream.of(product(1L, "Desk", T0)));
+
+        ProductReadModel model = model();
+        model.run(null);
+
+        // Deletions older than the outbox retention are gone, so catching up could resurrect products
+        verify(productRepository, never()).findByUpdatedAtGreaterThan(any());
+        assertTrue(model.view().snapshot().takenAt().isAfter(takenAt));
+        assertEquals("Desk", model.find(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void disabled_IgnoresChangesAndIsNeverReady() throws IOException {
+        ProductReadModel model = new ProductReadModel(productRepository, outboxRepository, new ProductShards(1),
+            transactionManager, new SimpleMeterRegistry(), false, directory.toString(), SLACK, RETENTION);
+
+        model.run(null);
+        model.onProductChanged(updated(product(1L, "Desk", T0)));
+
+        assertFalse(model.isReady());
+        assertTrue(model.find(1L).isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
+    private ProductReadModel started(Product... products) throws IOException {
+        when(productRepository.streamAllOrderById()).thenReturn(Stream.of(products));
+        ProductReadModel model = model();
+        model.run(null);
+        return model;
+    }
+
+    private ProductReadModel model() {
+        return new ProductReadModel(productRepository, outboxRepository, new ProductShards(1), transactionManager,
+            new SimpleMeterRegistry(), true, directory.toString(), SLACK, RETENTION);
+    }
+
+    private static ProductChangedEvent updated(Product product) {
+        return new ProductChangedEvent(1L, ProductEventType.UPDATED, product.getId(), product);
+    }
+
+    private static Product product(Long id, String name, LocalDateTime updatedAt) {
+        return Product.builder()
+            .id(id)
+            .name(name)
+            .description("Description")
+            .price(new BigDecimal("10.00"))
+            .stockQuantity(5)
+            .createdAt(T0.minusDays(1))
+            .updatedAt(updatedAt)
+            .build();
+    }
+}
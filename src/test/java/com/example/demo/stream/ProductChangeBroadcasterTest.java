@@ -0,0 +1,115 @@
+package com.example.demo.stream;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+import com.example.demo.model.ProductEventType;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ProductChangeBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.destroy();
+        }
+    }
+
+    @Test
+    void onProductChanged_QueuesOnlyForMatchingSubscribers() {
+        broadcaster = broadcaster(16, OverflowPolicy.DROP_OLDEST);
+        broadcaster.subscribe(new ProductStreamFilter(Set.of(1L), null, null, null));
+        broadcaster.subscribe(new ProductStreamFilter(Set.of(2L), null, null, null));
+
+        broadcaster.onProductChanged(updated(1L));
+
+        assertEquals(2, subscribers());
+        assertEquals(1, counter("product.stream.events.queued"));
+        assertEquals(0, counter("product.stream.events.dropped"));
+    }
+
+    @Test
+    void sendHeartbeats_IgnoresFilters() {
+        broadcaster = broadcaster(16, OverflowPolicy.DROP_OLDEST);
+        broadcaster.subscribe(new ProductStreamFilter(Set.of(1L), null, null, null));
+        broadcaster.subscribe(new ProductStreamFilter(Set.of(2L), null, null, null));
+
+        broadcaster.sendHeartbeats();
+
+        assertEquals(2, counter("product.stream.events.queued"));
+    }
+
+    @Test
+    void onProductChanged_DropOldestOverflow_KeepsSubscriber() {
+        // A zero-size buffer overflows on every event, whatever the writer thread is doing
+        broadcaster = broadcaster(0, OverflowPolicy.DROP_OLDEST);
+        broadcaster.subscribe(new ProductStreamFilter(null, null, null, null));
+
+        broadcaster.onProductChanged(updated(1L));
+
+        assertEquals(1, subscribers());
+        assertEquals(1, counter("product.stream.events.dropped"));
+        assertEquals(0, counter("product.stream.disconnects.overflow"));
+    }
+
+    @Test
+    void onProductChanged_DisconnectOverflow_RemovesSubscriber() {
+        broadcaster = broadcaster(0, OverflowPolicy.DISCONNECT);
+        broadcaster.subscribe(new ProductStreamFilter(null, null, null, null));
+
+        broadcaster.onProductChanged(updated(1L));
+        broadcaster.onProductChanged(updated(2L));
+
+        assertEquals(0, subscribers());
+        assertEquals(1, counter("product.stream.disconnects.overflow"));
+        assertEquals(0, counter("product.stream.events.queued"));
+    }
+
+    @Test
+    void destroy_ClosesAllSubscriptions() {
+        broadcaster = broadcaster(16, OverflowPolicy.DROP_OLDEST);
+        broadcaster.subscribe(new ProductStreamFilter(null, null, null, null));
+        broadcaster.subscribe(new ProductStreamFilter(null, null, null, null));
+
+        broadcaster.destroy();
+        broadcaster.onProductChanged(updated(1L));
+
+        assertEquals(0, subscribers());
+        assertEquals(0, counter("product.stream.events.queued"));
+        broadcaster = null;
+    }
+
+    private ProductChangeBroadcaster broadcaster(int bufferSize, OverflowPolicy overflowPolicy) {
+        return new ProductChangeBroadcaster(JsonMapper.builder().findAndAddModules().build(), meterRegistry,
+            Duration.ofMinutes(1), bufferSize, overflowPolicy, 1);
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("product.stream.subscribers").gauge().value();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private static ProductChangedEvent updated(Long id) {
+        Product product = Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .price(new BigDecimal("10.00"))
+                .stockQuantity(5)
+                .build();
+        return new ProductChangedEvent(id, ProductEventType.UPDATED, id, product, product);
+    }
+}
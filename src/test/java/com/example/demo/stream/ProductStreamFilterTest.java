@@ -0,0 +1,88 @@
+package com.example.demo.stream;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductChangedEvent;
+import com.example.demo.model.ProductEventType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductStreamFilterTest {
+
+    @Test
+    void matches_NoCriteria_MatchesEverything() {
+        ProductStreamFilter filter = new ProductStreamFilter(null, null, null, null);
+
+        assertTrue(filter.matches(created(1L, "10.00", 5)));
+        assertTrue(filter.matches(deleted(1L)));
+    }
+
+    @Test
+    void matches_Ids_RestrictsToListedProducts() {
+        ProductStreamFilter filter = new ProductStreamFilter(Set.of(1L, 2L), null, null, null);
+
+        assertTrue(filter.matches(created(2L, "10.00", 5)));
+        assertFalse(filter.matches(created(3L, "10.00", 5)));
+        assertFalse(filter.matches(deleted(3L)));
+    }
+
+    @Test
+    void matches_PriceRange_IsInclusive() {
+        ProductStreamFilter filter = new ProductStreamFilter(null, new BigDecimal("10"), new BigDecimal("20"), null);
+
+        assertTrue(filter.matches(created(1L, "10.00", 5)));
+        assertTrue(filter.matches(created(1L, "20.00", 5)));
+        assertFalse(filter.matches(created(1L, "9.99", 5)));
+        assertFalse(filter.matches(created(1L, "20.01", 5)));
+    }
+
+    @Test
+    void matches_LowStockThreshold_CombinedWithOtherCriteria() {
+        ProductStreamFilter filter = new ProductStreamFilter(Set.of(1L), null, new BigDecimal("20"), 5);
+
+        assertTrue(filter.matches(created(1L, "15.00", 5)));
+        assertFalse(filter.matches(created(1L, "15.00", 6)));
+        assertFalse(filter.matches(created(1L, "25.00", 5)));
+    }
+
+    @Test
+    void matches_Deletion_IgnoresPriceAndStockCriteria() {
+        ProductStreamFilter filter = new ProductStreamFilter(null, new BigDecimal("10"), new BigDecimal("20"), 5);
+
+        assertTrue(filter.matches(deleted(1L)));
+    }
+
+    @Test
+    void matches_UpdateLeavingRange_IsDelivered() {
+        ProductStreamFilter filter = new ProductStreamFilter(null, null, null, 5);
+
+        // Restocked above the threshold: the subscriber must learn it is no longer low on stock
+        assertTrue(filter.matches(updated(1L, product(1L, "10.00", 2), product(1L, "10.00", 50))));
+        assertTrue(filter.matches(updated(1L, product(1L, "10.00", 50), product(1L, "10.00", 2))));
+        assertFalse(filter.matches(updated(1L, product(1L, "10.00", 40), product(1L, "10.00", 50))));
+    }
+
+    private static ProductChangedEvent created(Long id, String price, int stockQuantity) {
+        return new ProductChangedEvent(1L, ProductEventType.CREATED, id, product(id, price, stockQuantity));
+    }
+
+    private static ProductChangedEvent updated(Long id, Product previous, Product product) {
+        return new ProductChangedEvent(1L, ProductEventType.UPDATED, id, product, previous);
+    }
+
+    private static ProductChangedEvent deleted(Long id) {
+        return new ProductChangedEvent(1L, ProductEventType.DELETED, id, null);
+    }
+
+    private static Product product(Long id, String price, int stockQuantity) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .price(new BigDecimal(price))
+                .stockQuantity(stockQuantity)
+                .build();
+    }
+}
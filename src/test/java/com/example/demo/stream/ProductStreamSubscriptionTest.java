@@ -0,0 +1,161 @@
+package com.example.demo.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductStreamSubscriptionTest {
+
+    private static final ProductStreamFilter ALL = new ProductStreamFilter(null, null, null, null);
+    private static final Executor INLINE = Runnable::run;
+
+    @Test
+    void drain_SendsBufferedMessagesInOrder() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ProductStreamSubscription subscription = new ProductStreamSubscription(emitter, ALL, 4, OverflowPolicy.DROP_OLDEST);
+
+        assertEquals(ProductStreamSubscription.OfferResult.ACCEPTED, subscription.offer(message(1)));
+        assertEquals(ProductStreamSubscription.OfferResult.ACCEPTED, subscription.offer(message(2)));
+        subscription.scheduleDrain(INLINE);
+
+        assertEquals(2, emitter.sent.size());
+        assertTrue(emitter.sent.get(0).contains("id:1"));
+        assertTrue(emitter.sent.get(1).contains("id:2"));
+    }
+
+    @Test
+    void offer_DropOldest_DiscardsOldestWhenFull() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ProductStreamSubscription subscription = new ProductStreamSubscription(emitter, ALL, 2, OverflowPolicy.DROP_OLDEST);
+
+        subscription.offer(message(1));
+        subscription.offer(message(2));
+        assertEquals(ProductStreamSubscription.OfferResult.DROPPED_OLDEST, subscription.offer(message(3)));
+        subscription.scheduleDrain(INLINE);
+
+        assertFalse(subscription.isClosed());
+        assertEquals(2, emitter.sent.size());
+        assertTrue(emitter.sent.get(0).contains("id:2"));
+        assertTrue(emitter.sent.get(1).contains("id:3"));
+    }
+
+    @Test
+    void offer_Disconnect_ClosesWhenFull() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ProductStreamSubscription subscription = new ProductStreamSubscription(emitter, ALL, 2, OverflowPolicy.DISCONNECT);
+
+        subscription.offer(message(1));
+        subscription.offer(message(2));
+        assertEquals(ProductStreamSubscription.OfferResult.OVERFLOWED, subscription.offer(message(3)));
+
+        assertTrue(subscription.isClosed());
+        assertEquals(ProductStreamSubscription.OfferResult.CLOSED, subscription.offer(message(4)));
+        // The buffer was discarded with the connection
+        subscription.scheduleDrain(INLINE);
+        assertTrue(emitter.sent.isEmpty());
+    }
+
+    @Test
+    void close_CompletesEmitterAndRejectsOffers() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ProductStreamSubscription subscription = new ProductStreamSubscription(emitter, ALL, 2, OverflowPolicy.DROP_OLDEST);
+        subscription.offer(message(1));
+
+        subscription.close();
+
+        assertTrue(subscription.isClosed());
+        assertTrue(emitter.completed);
+        assertEquals(ProductStreamSubscription.OfferResult.CLOSED, subscription.offer(message(2)));
+        subscription.scheduleDrain(INLINE);
+        assertTrue(emitter.sent.isEmpty());
+    }
+
+    @Test
+    void drain_SendFailure_ClosesAndCompletesWithError() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failSends = true;
+        ProductStreamSubscription subscription = new ProductStreamSubscription(emitter, ALL, 4, OverflowPolicy.DROP_OLDEST);
+        subscription.offer(message(1));
+        subscription.offer(message(2));
+
+        subscription.scheduleDrain(INLINE);
+
+        assertTrue(subscription.isClosed());
+        assertInstanceOf(IOException.class, emitter.failure);
+        assertEquals(ProductStreamSubscription.OfferResult.CLOSED, subscription.offer(message(3)));
+    }
+
+    @Test
+    void scheduleDrain_WhileDraining_DoesNotScheduleAgain() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ProductStreamSubscription subscription = new ProductStreamSubscription(emitter, ALL, 4, OverflowPolicy.DROP_OLDEST);
+        List<Runnable> scheduled = new ArrayList<>();
+
+        subscription.offer(message(1));
+        subscription.scheduleDrain(scheduled::add);
+        subscription.offer(message(2));
+        subscription.scheduleDrain(scheduled::add);
+        assertEquals(1, scheduled.size());
+
+        // The pending drain picks up the second message too
+        scheduled.get(0).run();
+        assertEquals(2, emitter.sent.size());
+
+        subscription.offer(message(3));
+        subscription.scheduleDrain(scheduled::add);
+        assertEquals(2, scheduled.size());
+    }
+
+    @Test
+    void heartbeat_IsSentAsComment() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ProductStreamSubscription subscription = new ProductStreamSubscription(emitter, ALL, 4, OverflowPolicy.DROP_OLDEST);
+
+        subscription.offer(ProductStreamSubscription.Message.heartbeat());
+        subscription.scheduleDrain(INLINE);
+
+        assertEquals(1, emitter.sent.size());
+        assertTrue(emitter.sent.get(0).startsWith(":heartbeat"));
+    }
+
+    private static ProductStreamSubscription.Message message(int id) {
+        return ProductStreamSubscription.Message.event(String.valueOf(id), "updated", "{\"id\":" + id + "}");
+    }
+
+    /** Records what would have been written to the connection. */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new ArrayList<>();
+        private boolean failSends;
+        private boolean completed;
+        private Throwable failure;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSends) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder.build().stream()
+                .map(data -> String.valueOf(data.getData()))
+                .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failure = ex;
+            super.completeWithError(ex);
+        }
+    }
+}